@@ -0,0 +1,103 @@
+package com.tracker.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maps the 'loadcell.detector' section of application.yml into this class.
+ * Only the parameters of the selected detector type are used.
+ */
+@Component
+@ConfigurationProperties(prefix = "loadcell.detector")
+public class DetectorProperties {
+
+    // threshold | hysteresis | ewma | cusum
+    private String type = "threshold";
+
+    // kg below baseline that counts as "on the bar"
+    private double threshold = 8.0;
+    // hysteresis, ewma: kg below baseline under which a running session still counts
+    private double stopThreshold = 4.0;
+    private int baselineWindow = 100;
+    private int startConsecutive = 1;
+    private int stopConsecutive = 1;
+
+    // ewma: smoothing of the signal and of the idle baseline
+    private double signalAlpha = 0.3;
+    private double baselineAlpha = 0.02;
+
+    // cusum: allowed drift per reading and decision limit, both in kg
+    private double cusumDrift = 2.0;
+    private double cusumLimit = 20.0;
+
+    // Getters and setters
+    public String getType() {
+        return type;
+    }
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public double getThreshold() {
+        return threshold;
+    }
+    public void setThreshold(double threshold) {
+        this.threshold = threshold;
+    }
+
+    public double getStopThreshold() {
+        return stopThreshold;
+    }
+    public void setStopThreshold(double stopThreshold) {
+        this.stopThreshold = stopThreshold;
+    }
+
+    public int getBaselineWindow() {
+        return baselineWindow;
+    }
+    public void setBaselineWindow(int baselineWindow) {
+        this.baselineWindow = baselineWindow;
+    }
+
+    public int getStartConsecutive() {
+        return startConsecutive;
+    }
+    public void setStartConsecutive(int startConsecutive) {
+        this.startConsecutive = startConsecutive;
+    }
+
+    public int getStopConsecutive() {
+        return stopConsecutive;
+    }
+    public void setStopConsecutive(int stopConsecutive) {
+        this.stopConsecutive = stopConsecutive;
+    }
+
+    public double getSignalAlpha() {
+        return signalAlpha;
+    }
+    public void setSignalAlpha(double signalAlpha) {
+        this.signalAlpha = signalAlpha;
+    }
+
+    public double getBaselineAlpha() {
+        return baselineAlpha;
+    }
+    public void setBaselineAlpha(double baselineAlpha) {
+        this.baselineAlpha = baselineAlpha;
+    }
+
+    public double getCusumDrift() {
+        return cusumDrift;
+    }
+    public void setCusumDrift(double cusumDrift) {
+        this.cusumDrift = cusumDrift;
+    }
+
+    public double getCusumLimit() {
+        return cusumLimit;
+    }
+    public void setCusumLimit(double cusumLimit) {
+        this.cusumLimit = cusumLimit;
+    }
+}
@@ -0,0 +1,87 @@
+package com.tracker.demo.config;
+
+import com.tracker.demo.util.GitHubRateLimiter;
+import com.tracker.demo.util.HttpCallMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * One shared HTTP client for all GitHub calls.
+ *
+ * The JDK client keeps connections to api.github.com open and multiplexes requests
+ * over HTTP/2, so only the first call pays the TLS handshake. Every call is timed
+ * by {@link HttpCallMetrics}, exposed at /github/metrics, and kept within GitHub's
+ * rate limit by {@link GitHubRateLimiter} (/github/rate-limit). The limiter runs
+ * last, so the timings include any wait for the rate limit.
+ */
+@Configuration
+public class GitHubClientConfig {
+
+    @Value("${github.api.connect-timeout-ms:5000}")
+    private long connectTimeoutMillis;
+
+    @Value("${github.api.read-timeout-ms:15000}")
+    private long readTimeoutMillis;
+
+    // Calls per window kept for interactive requests; batch jobs stop short of it
+    @Value("${github.rate-limit.interactive-reserve:200}")
+    private int interactiveReserve;
+
+    @Value("${github.rate-limit.batch-per-second:5}")
+    private double batchPerSecond;
+
+    // Longest an interactive call waits for the limit before it is sent regardless
+    @Value("${github.rate-limit.interactive-max-wait-ms:5000}")
+    private long interactiveMaxWaitMillis;
+
+    @Bean
+    public GitHubRateLimiter gitHubRateLimiter() {
+        return new GitHubRateLimiter(interactiveReserve, batchPerSecond, interactiveMaxWaitMillis);
+    }
+
+    @Bean
+    public HttpCallMetrics gitHubCallMetrics() {
+        return new HttpCallMetrics(GitHubClientConfig::operationName);
+    }
+
+    @Bean
+    public RestTemplate gitHubRestTemplate(HttpCallMetrics gitHubCallMetrics, GitHubRateLimiter gitHubRateLimiter) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMillis));
+
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        restTemplate.getInterceptors().add(gitHubCallMetrics);
+        restTemplate.getInterceptors().add(gitHubRateLimiter);
+        return restTemplate;
+    }
+
+    /**
+     * "GET contents", "PUT contents", "GET git/trees", ... : the method plus the part of
+     * the path after /repos/{owner}/{repo}/, without file paths or SHAs.
+     */
+    static String operationName(HttpRequest request) {
+        String path = request.getURI().getPath();
+        String[] segments = path.split("/");
+        String operation = path;
+        // ["", "repos", owner, repo, operation, ...]
+        if (segments.length > 4 && "repos".equals(segments[1])) {
+            operation = segments[4];
+            if ("git".equals(operation) && segments.length > 5) {
+                operation += "/" + segments[5];
+            }
+        }
+        return request.getMethod() + " " + operation;
+    }
+}
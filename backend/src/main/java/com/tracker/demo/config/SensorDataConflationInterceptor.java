@@ -0,0 +1,160 @@
+package com.tracker.demo.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conflates sensor-data frames per subscription on the way out to WebSocket clients.
+ *
+ * Each subscription to /topic/sensor-data (or a per-device topic under it) gets at most
+ * {@code websocket.sensor-data.max-fps} frames per second from each device; frames carry
+ * the device in the {@value #DEVICE_HEADER} header, so devices sharing the topic don't
+ * replace each other's values. Frames arriving faster replace the one waiting for the same
+ * device, so only the latest value per device is ever queued for a client, and a background
+ * tick delivers it once the client's interval has passed. A slow client therefore can't
+ * pile up messages in its send buffer, whatever the sample rate.
+ */
+@Component
+public class SensorDataConflationInterceptor implements ChannelInterceptor {
+
+    private static final String SENSOR_TOPIC = "/topic/sensor-data";
+
+    // Native header naming the device a sensor-data frame came from; the broker copies it to every subscriber
+    public static final String DEVICE_HEADER = "device-id";
+
+    // 0 or less disables conflation
+    @Value("${websocket.sensor-data.max-fps:10}")
+    private int maxFramesPerSecond;
+
+    private final Map<String, Subscription> subscriptions = new ConcurrentHashMap<>();
+    private ScheduledExecutorService flusher;
+    private long intervalNanos;
+
+    @PostConstruct
+    public void start() {
+        if (maxFramesPerSecond <= 0) {
+            return;
+        }
+        intervalNanos = TimeUnit.SECONDS.toNanos(1) / maxFramesPerSecond;
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sensor-data-conflation");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleAtFixedRate(this::flushDue, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (flusher == null) {
+            return message;
+        }
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        String destination = accessor.getDestination();
+        String sessionId = accessor.getSessionId();
+        if (accessor.getMessageType() != SimpMessageType.MESSAGE
+                || destination == null || !destination.startsWith(SENSOR_TOPIC)
+                || sessionId == null) {
+            return message;
+        }
+
+        String key = subscriptionKey(sessionId, accessor.getSubscriptionId())
+                + accessor.getFirstNativeHeader(DEVICE_HEADER);
+        Subscription subscription = subscriptions.computeIfAbsent(key, k -> new Subscription(channel));
+        return subscription.offer(message, System.nanoTime(), intervalNanos);
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        String prefix = subscriptionKey(accessor.getSessionId(), accessor.getSubscriptionId());
+        subscriptions.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        String prefix = event.getSessionId() + ":";
+        subscriptions.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    // Every device's key for the subscription starts with this
+    private static String subscriptionKey(String sessionId, String subscriptionId) {
+        return sessionId + ":" + subscriptionId + ":";
+    }
+
+    private void flushDue() {
+        long now = System.nanoTime();
+        for (Subscription subscription : subscriptions.values()) {
+            Message<?> due = subscription.takeDue(now, intervalNanos);
+            if (due != null) {
+                subscription.channel.send(due);
+            }
+        }
+    }
+
+    /**
+     * Rate-limit state for one device's frames on one client subscription.
+     */
+    private static final class Subscription {
+
+        private final MessageChannel channel;
+        private long lastSentNanos;
+        // Latest frame held back because the client's interval hasn't passed yet
+        private Message<?> pending;
+        // Frame handed to the flusher; let it through when it comes back round preSend
+        private Message<?> released;
+
+        Subscription(MessageChannel channel) {
+            this.channel = channel;
+            this.lastSentNanos = System.nanoTime() - TimeUnit.HOURS.toNanos(1);
+        }
+
+        synchronized Message<?> offer(Message<?> message, long now, long intervalNanos) {
+            if (message == released) {
+                released = null;
+                return message;
+            }
+            if (now - lastSentNanos >= intervalNanos) {
+                lastSentNanos = now;
+                pending = null;
+                return message;
+            }
+            pending = message; // newer value replaces the one waiting
+            return null;
+        }
+
+        synchronized Message<?> takeDue(long now, long intervalNanos) {
+            if (pending == null || now - lastSentNanos < intervalNanos) {
+                return null;
+            }
+            Message<?> due = pending;
+            pending = null;
+            lastSentNanos = now;
+            released = due;
+            return due;
+        }
+    }
+}
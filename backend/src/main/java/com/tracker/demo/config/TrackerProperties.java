@@ -0,0 +1,73 @@
+package com.tracker.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maps the 'tracker' section of application.yml: named daily activity windows,
+ * each with its own goal.
+ */
+@Component
+@ConfigurationProperties(prefix = "tracker")
+public class TrackerProperties {
+
+    private List<Window> windows = new ArrayList<>();
+
+    // Getters and setters
+    public List<Window> getWindows() {
+        return windows;
+    }
+    public void setWindows(List<Window> windows) {
+        this.windows = windows;
+    }
+
+    /**
+     * One 'tracker.windows' entry. A window whose end is before its start runs past midnight.
+     */
+    public static class Window {
+        private String name;
+        private String start;                         // local time, e.g. "06:15"
+        private String end;                           // local time, e.g. "07:15"
+        private long goalSeconds = 30;
+        private String zone = "America/Los_Angeles";
+
+        // Getters and setters
+        public String getName() {
+            return name;
+        }
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getStart() {
+            return start;
+        }
+        public void setStart(String start) {
+            this.start = start;
+        }
+
+        public String getEnd() {
+            return end;
+        }
+        public void setEnd(String end) {
+            this.end = end;
+        }
+
+        public long getGoalSeconds() {
+            return goalSeconds;
+        }
+        public void setGoalSeconds(long goalSeconds) {
+            this.goalSeconds = goalSeconds;
+        }
+
+        public String getZone() {
+            return zone;
+        }
+        public void setZone(String zone) {
+            this.zone = zone;
+        }
+    }
+}
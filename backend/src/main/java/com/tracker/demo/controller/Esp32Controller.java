@@ -1,21 +1,44 @@
 package com.tracker.demo.controller;
 
+import com.tracker.demo.dto.ActivityWindowStatus;
+import com.tracker.demo.dto.LiveLoadCellState;
 import com.tracker.demo.dto.LoadCellExerciseResult;
+import com.tracker.demo.dto.ReplayReport;
 import com.tracker.demo.dto.SensorData;
+import com.tracker.demo.dto.WeightSeriesPoint;
 import com.tracker.demo.service.InMemoryExerciseTrackerService;
+import com.tracker.demo.service.LiveStateService;
 import com.tracker.demo.service.LoadCellService;
-import com.tracker.demo.service.WebSocketService;
+import com.tracker.demo.service.RawSampleStore;
+import com.tracker.demo.service.SensorIngestionService;
+import com.tracker.demo.service.WeightRollupService;
+import com.tracker.demo.sql.entity.LoadCellExercise;
+import com.tracker.demo.sql.repository.LoadCellExerciseRepository;
+import com.tracker.demo.util.SensorFrameCodec;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 @RestController
 public class Esp32Controller {
 
     @Autowired
-    private WebSocketService webSocketService;
+    private SensorIngestionService sensorIngestionService;
 
     @Autowired
     private LoadCellService loadCellService;
@@ -23,39 +46,203 @@ public class Esp32Controller {
     @Autowired
     private InMemoryExerciseTrackerService inMemoryExerciseTrackerService;
 
+    @Autowired
+    private RawSampleStore rawSampleStore;
+
+    @Autowired
+    private WeightRollupService weightRollupService;
+
+    @Autowired
+    private LiveStateService liveStateService;
+
     // Endpoint to receive data from ESP32
     @PostMapping("/weight/data")
-    public String receiveData(@RequestBody SensorData sensorData) {
-        loadCellService.processWeightData(sensorData.getWeight());
-        // Forward the data to WebSocket clients
-        webSocketService.sendDataToClients(sensorData);
+    public ResponseEntity<String> receiveData(@RequestBody SensorData sensorData) {
+        if (!sensorIngestionService.ingest(sensorData)) {
+            return backpressure();
+        }
+        return ResponseEntity.ok("Data received and forwarded to WebSocket clients!");
+    }
 
-        return "Data received and forwarded to WebSocket clients!";
+    // Endpoint to receive an ordered batch of timestamped readings from ESP32 in one request
+    @PostMapping("/weight/batch")
+    public ResponseEntity<String> receiveBatch(@RequestBody List<SensorData> readings) {
+        try {
+            if (!sensorIngestionService.ingestBatch(readings)) {
+                return backpressure();
+            }
+        } catch (IllegalArgumentException e) {
+            return tooLarge(e);
+        }
+        return ResponseEntity.ok("Batch of " + readings.size() + " readings received and forwarded to WebSocket clients!");
+    }
+
+    // Same as /weight/batch, but the body is a run of fixed-width binary frames (see SensorFrameCodec)
+    @PostMapping(value = "/weight/batch", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<String> receiveBinaryBatch(@RequestBody byte[] payload) {
+        ByteBuffer frames = SensorFrameCodec.wrap(payload);
+        if (!SensorFrameCodec.isWellFormed(frames)) {
+            return ResponseEntity.badRequest()
+                    .body("Payload length " + payload.length + " is not a multiple of "
+                            + SensorFrameCodec.FRAME_SIZE + " bytes");
+        }
+
+        int count;
+        try {
+            count = sensorIngestionService.ingestFrames(frames);
+        } catch (IllegalArgumentException e) {
+            return tooLarge(e);
+        }
+        if (count < 0) {
+            return backpressure();
+        }
+        return ResponseEntity.ok("Batch of " + count + " frames received and forwarded to WebSocket clients!");
+    }
+
+    // The ingestion buffer is full: tell the ESP32 to keep its readings and retry shortly
+    private ResponseEntity<String> backpressure() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Ingestion buffer full, retry later");
+    }
+
+    // The batch can never fit the ingestion buffer: retrying won't help, the ESP32 must split it
+    private ResponseEntity<String> tooLarge(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(e.getMessage());
     }
 
     // Endpoint to receive data from ESP32
     @PostMapping("/weight/did_wake_up")
     public Boolean checkIfWakedUp() {
-        return inMemoryExerciseTrackerService.didWakeUpToday;
+        return inMemoryExerciseTrackerService.didWakeUpToday();
+    }
+
+    // Detector state and today's progress, from memory (no DB query)
+    @GetMapping("/weight/live")
+    public LiveLoadCellState getLiveState(@RequestParam(defaultValue = "0") int deviceId) {
+        return loadCellService.getLiveState(deviceId);
+    }
+
+    // Same state as a Server-Sent Events stream ("state" events), pushed only when it changes
+    @GetMapping(value = "/weight/live/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLiveState(@RequestParam(defaultValue = "0") int deviceId) {
+        return liveStateService.subscribe(deviceId);
+    }
+
+    // Progress of every configured activity window (tracker.windows)
+    @GetMapping("/weight/windows")
+    public List<ActivityWindowStatus> getActivityWindows() {
+        return inMemoryExerciseTrackerService.getWindowStatuses();
     }
 
     @GetMapping("/weight/total-time-today")
-    public LoadCellExerciseResult getTotalExerciseTimeToday() {
-        return loadCellService.getTotalExerciseTimeToday();
+    public LoadCellExerciseResult getTotalExerciseTimeToday(@RequestParam(defaultValue = "0") int deviceId) {
+        return loadCellService.getTotalExerciseTimeToday(deviceId);
     }
 
     // Single-day endpoint remains the same (optional)
     @GetMapping("/weight/day/{dateStr}")
-    public LoadCellExerciseResult getPracticeForDay(@PathVariable String dateStr) {
-        return loadCellService.getTotalExerciseTimeForDay(dateStr);
+    public LoadCellExerciseResult getPracticeForDay(@PathVariable String dateStr,
+                                                    @RequestParam(defaultValue = "0") int deviceId) {
+        return loadCellService.getTotalExerciseTimeForDay(deviceId, dateStr);
     }
 
     @GetMapping("/weight/range")
     public Map<LocalDate, LoadCellExerciseResult> getTotalExerciseTimeInRange(@RequestParam String start,
-                                                            @RequestParam String end) {
+                                                            @RequestParam String end,
+                                                            @RequestParam(defaultValue = "0") int deviceId) {
         LocalDate startDate = LocalDate.parse(start);
         LocalDate endDate = LocalDate.parse(end);
 
-        return loadCellService.getTotalExerciseTimeInRange(startDate, endDate);
+        return loadCellService.getTotalExerciseTimeInRange(deviceId, startDate, endDate);
+    }
+
+    // Raw readings as stored, e.g. /weight/raw?start=2025-01-05T06:00&end=2025-01-05T07:00&deviceId=1
+    @GetMapping("/weight/raw")
+    public List<SensorData> getRawReadings(@RequestParam String start,
+                                           @RequestParam String end,
+                                           @RequestParam(defaultValue = "0") int deviceId,
+                                           @RequestParam(defaultValue = "10000") int limit) throws IOException {
+        if (limit <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be positive: " + limit);
+        }
+        List<SensorData> readings = new ArrayList<>();
+        rawSampleStore.scan(deviceId, toEpochMillis(start), toEpochMillis(end), (timestamp, rawValue, weight) -> {
+            SensorData reading = new SensorData();
+            reading.setDeviceId(deviceId);
+            reading.setTimestamp(timestamp);
+            reading.setRawValue(rawValue);
+            reading.setWeight(weight);
+            readings.add(reading);
+            return readings.size() < limit;
+        });
+        return readings;
+    }
+
+    // Downsampled weight for charts, e.g. /weight/series?start=2025-01-01&end=2025-02-01&resolution=1h
+    // Without a resolution the finest one that keeps the answer small is used.
+    @GetMapping("/weight/series")
+    public List<WeightSeriesPoint> getWeightSeries(@RequestParam String start,
+                                                   @RequestParam String end,
+                                                   @RequestParam(required = false) String resolution,
+                                                   @RequestParam(defaultValue = "0") int deviceId) {
+        WeightRollupService.Resolution parsed = null;
+        if (resolution != null) {
+            try {
+                parsed = WeightRollupService.Resolution.fromParam(resolution);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+            }
+        }
+        return weightRollupService.getSeries(deviceId, toEpochMillis(start), toEpochMillis(end), parsed);
+    }
+
+    // Runs stored readings through a detector at full speed, e.g. /weight/replay?start=2025-01-01&end=2025-02-01&type=cusum
+    @GetMapping("/weight/replay")
+    public ReplayReport replayDetector(@RequestParam String start,
+                                       @RequestParam String end,
+                                       @RequestParam(required = false) String type,
+                                       @RequestParam(defaultValue = "0") int deviceId) throws IOException {
+        try {
+            return loadCellService.replay(deviceId, toEpochMillis(start), toEpochMillis(end), type);
+        } catch (IllegalArgumentException e) {
+            // Unknown detector type
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    // Individual sessions in start order, e.g. /weight/sessions?start=2025-01-01&end=2025-01-08&page=0&size=100
+    @GetMapping("/weight/sessions")
+    public List<LoadCellExercise> getSessions(@RequestParam String start,
+                                              @RequestParam String end,
+                                              @RequestParam(defaultValue = "0") int page,
+                                              @RequestParam(defaultValue = "100") int size,
+                                              @RequestParam(defaultValue = "0") int deviceId) {
+        return loadCellService.getSessions(deviceId, toLocalDateTime(start), toLocalDateTime(end), page, size);
+    }
+
+    // Session count and seconds per day or hour, e.g. /weight/sessions/summary?start=2025-01-01&end=2025-02-01&per=day
+    @GetMapping("/weight/sessions/summary")
+    public List<LoadCellExerciseRepository.Bucket> getSessionSummary(@RequestParam String start,
+                                                                     @RequestParam String end,
+                                                                     @RequestParam(defaultValue = "day") String per,
+                                                                     @RequestParam(defaultValue = "0") int deviceId) {
+        try {
+            return loadCellService.getSessionSummary(deviceId, toLocalDateTime(start), toLocalDateTime(end), per);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // Unknown bucket or unparseable start / end
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    // Accepts either a date ("2025-01-05", start of day) or a date-time ("2025-01-05T06:15")
+    private static long toEpochMillis(String value) {
+        return toLocalDateTime(value).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(String value) {
+        return value.contains("T")
+                ? LocalDateTime.parse(value)
+                : LocalDate.parse(value).atStartOfDay();
     }
 }
@@ -0,0 +1,67 @@
+package com.tracker.demo.controller;
+
+import com.tracker.demo.dto.HttpCallStats;
+import com.tracker.demo.dto.RateLimitStatus;
+import com.tracker.demo.service.NoteWebhookService;
+import com.tracker.demo.util.GitHubRateLimiter;
+import com.tracker.demo.util.HttpCallMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/github")
+public class GitHubController {
+
+    @Autowired
+    private HttpCallMetrics gitHubCallMetrics;
+
+    @Autowired
+    private GitHubRateLimiter gitHubRateLimiter;
+
+    @Autowired
+    private NoteWebhookService noteWebhookService;
+
+    // Latency of the calls GitHubService made since startup, per operation
+    @GetMapping("/metrics")
+    public List<HttpCallStats> getMetrics() {
+        return gitHubCallMetrics.snapshot();
+    }
+
+    // Budget GitHub reported last, and how many calls wait for it per lane
+    @GetMapping("/rate-limit")
+    public List<RateLimitStatus> getRateLimit() {
+        return gitHubRateLimiter.snapshot();
+    }
+
+    // Push webhook of the notes repo; body is kept raw so the HMAC matches byte for byte
+    @PostMapping("/webhook")
+    public ResponseEntity<String> onWebhook(@RequestHeader(value = "X-GitHub-Event", required = false) String event,
+                                            @RequestHeader(value = "X-Hub-Signature-256", required = false) String signature,
+                                            @RequestBody byte[] body) {
+        if (!noteWebhookService.verifySignature(body, signature)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid signature");
+        }
+        if (!"push".equals(event)) {
+            return ResponseEntity.ok("Ignored " + event); // e.g. the "ping" sent on setup
+        }
+        try {
+            int invalidated = noteWebhookService.handlePush(body);
+            if (invalidated == NoteWebhookService.ALL_PATHS) {
+                return ResponseEntity.ok("Invalidated all paths");
+            }
+            return ResponseEntity.ok("Invalidated " + invalidated + " path(s)");
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body("Malformed payload");
+        }
+    }
+}
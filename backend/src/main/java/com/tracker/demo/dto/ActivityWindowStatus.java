@@ -0,0 +1,29 @@
+package com.tracker.demo.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.ZonedDateTime;
+
+@Setter
+@Getter
+public class ActivityWindowStatus {
+    private String name;
+    private ZonedDateTime start;    // current or most recent occurrence of the window
+    private ZonedDateTime end;
+    private long activeSeconds;     // so far, if the window is still open
+    private long goalSeconds;
+    private boolean goalMet;
+    private boolean completed;
+
+    public ActivityWindowStatus(String name, ZonedDateTime start, ZonedDateTime end,
+                                long activeSeconds, long goalSeconds, boolean completed) {
+        this.name = name;
+        this.start = start;
+        this.end = end;
+        this.activeSeconds = activeSeconds;
+        this.goalSeconds = goalSeconds;
+        this.goalMet = activeSeconds >= goalSeconds;
+        this.completed = completed;
+    }
+}
@@ -0,0 +1,27 @@
+package com.tracker.demo.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Setter
+@Getter
+public class HttpCallStats {
+    private String operation;     // e.g. "GET contents"
+    private long calls;
+    private long failures;        // I/O errors and 5xx responses
+    private double meanMillis;
+    private double p50Millis;     // p50/p99 over the most recent calls
+    private double p99Millis;
+    private double maxMillis;
+
+    public HttpCallStats(String operation, long calls, long failures,
+                         double meanMillis, double p50Millis, double p99Millis, double maxMillis) {
+        this.operation = operation;
+        this.calls = calls;
+        this.failures = failures;
+        this.meanMillis = meanMillis;
+        this.p50Millis = p50Millis;
+        this.p99Millis = p99Millis;
+        this.maxMillis = maxMillis;
+    }
+}
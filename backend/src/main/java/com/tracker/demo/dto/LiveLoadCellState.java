@@ -0,0 +1,31 @@
+package com.tracker.demo.dto;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+
+// Equality is what the SSE stream uses to decide whether anything changed,
+// hence the rounded baseline and percentage
+@Setter
+@Getter
+@EqualsAndHashCode
+public class LiveLoadCellState {
+    private int deviceId;
+    private double baselineWeight;   // kg, rounded to 0.1
+    private boolean exerciseActive;
+    private long elapsedSeconds;     // of the session in progress, 0 if none
+    private long todaySeconds;       // today's total including the session in progress
+    private long goalSeconds;
+    private double percentage;       // todaySeconds / goalSeconds * 100, rounded to 0.1
+
+    public LiveLoadCellState(int deviceId, double baselineWeight, boolean exerciseActive, long elapsedSeconds,
+                             long todaySeconds, long goalSeconds, double percentage) {
+        this.deviceId = deviceId;
+        this.baselineWeight = baselineWeight;
+        this.exerciseActive = exerciseActive;
+        this.elapsedSeconds = elapsedSeconds;
+        this.todaySeconds = todaySeconds;
+        this.goalSeconds = goalSeconds;
+        this.percentage = percentage;
+    }
+}
@@ -0,0 +1,27 @@
+package com.tracker.demo.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Setter
+@Getter
+public class RateLimitStatus {
+    private String resource;          // GitHub's rate limit bucket, e.g. "core"
+    private int limit;
+    private int remaining;            // as last reported, minus calls sent since
+    private long resetEpochSeconds;   // 0 = unknown
+    private long pausedMillis;        // > 0 while GitHub asked us to back off
+    private int waitingInteractive;
+    private int waitingBatch;
+
+    public RateLimitStatus(String resource, int limit, int remaining, long resetEpochSeconds,
+                           long pausedMillis, int waitingInteractive, int waitingBatch) {
+        this.resource = resource;
+        this.limit = limit;
+        this.remaining = remaining;
+        this.resetEpochSeconds = resetEpochSeconds;
+        this.pausedMillis = pausedMillis;
+        this.waitingInteractive = waitingInteractive;
+        this.waitingBatch = waitingBatch;
+    }
+}
@@ -0,0 +1,32 @@
+package com.tracker.demo.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Setter
+@Getter
+public class ReplayReport {
+    private String detectorType;
+    private long samples;
+    private long elapsedMillis;
+    private double samplesPerSecond;
+    private long totalSessionSeconds;
+    private List<DetectedSession> sessions = new ArrayList<>();
+
+    @Setter
+    @Getter
+    public static class DetectedSession {
+        private long start;   // epoch millis of the reading that started it
+        private long end;     // epoch millis of the reading that stopped it
+        private long seconds;
+
+        public DetectedSession(long start, long end) {
+            this.start = start;
+            this.end = end;
+            this.seconds = (end - start) / 1000;
+        }
+    }
+}
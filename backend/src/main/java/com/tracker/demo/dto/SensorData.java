@@ -6,14 +6,24 @@ import lombok.Setter;
 @Getter
 @Setter
 public class SensorData {
+    private int deviceId;   // which scale / bar sent the reading (0 = the original single scale)
     private long rawValue;
     private double weight; // Optional: Add more fields as needed
 
+    // Epoch millis when the ESP32 took the reading (0 = not supplied, server stamps it on receipt)
+    private long timestamp;
+
+    // Per-device counter starting at 1, used to restore the order of late or batched readings (0 = not supplied)
+    private int sequence;
+
     @Override
     public String toString() {
         return "SensorData{" +
-                "rawValue=" + rawValue +
+                "deviceId=" + deviceId +
+                ", rawValue=" + rawValue +
                 ", weight=" + weight +
+                ", timestamp=" + timestamp +
+                ", sequence=" + sequence +
                 '}';
     }
-}
\ No newline at end of file
+}
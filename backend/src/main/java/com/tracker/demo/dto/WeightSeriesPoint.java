@@ -0,0 +1,22 @@
+package com.tracker.demo.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Setter
+@Getter
+public class WeightSeriesPoint {
+    private long timestamp;   // start of the bucket, epoch millis
+    private double min;
+    private double max;
+    private double mean;
+    private long count;       // readings in the bucket
+
+    public WeightSeriesPoint(long timestamp, double min, double max, double mean, long count) {
+        this.timestamp = timestamp;
+        this.min = min;
+        this.max = max;
+        this.mean = mean;
+        this.count = count;
+    }
+}
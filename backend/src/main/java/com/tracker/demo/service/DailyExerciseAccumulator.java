@@ -0,0 +1,367 @@
+package com.tracker.demo.service;
+
+import com.tracker.demo.sql.entity.LoadCellExercise;
+import com.tracker.demo.sql.entity.LoadCellJournalMark;
+import com.tracker.demo.sql.entity.LoadCellSession;
+import com.tracker.demo.sql.repository.LoadCellExerciseRepository;
+import com.tracker.demo.sql.repository.LoadCellJournalMarkRepository;
+import com.tracker.demo.sql.repository.LoadCellSessionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind daily exercise totals.
+ *
+ * Finished sessions are added to an in-memory accumulator and flushed to
+ * LoadCellSession rows in one transaction every few seconds, so the ingestion
+ * thread never waits on Postgres and concurrent session ends can't lose updates.
+ * The same transaction inserts one LoadCellExercise row per session as a JDBC batch.
+ *
+ * Every session is first appended (and fsync'ed) to a small local journal under
+ * an increasing sequence number. Each flush stores the highest sequence number it
+ * applied (LoadCellJournalMark) in the same transaction. On startup the journal
+ * entries above that mark are replayed, and after a successful flush the flushed
+ * prefix is cut off. A crash between flushes therefore loses no seconds, and a
+ * crash between the DB commit and the journal compaction applies nothing twice.
+ *
+ * Day totals asked for through {@link #getDayTotal} are read from the DB once per
+ * device and day, then kept up to date in memory as sessions are recorded, so live
+ * views cost no queries.
+ */
+@Service
+public class DailyExerciseAccumulator {
+
+    @Autowired
+    private LoadCellSessionRepository loadCellSessionRepository;
+
+    @Autowired
+    private LoadCellExerciseRepository loadCellExerciseRepository;
+
+    @Autowired
+    private LoadCellJournalMarkRepository loadCellJournalMarkRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${loadcell.journal.path:./sensor-data/session-journal.log}")
+    private String journalPath;
+
+    private FileChannel journal;
+    // Sequence number of the next journal entry. Guarded by 'this'.
+    private long nextSequence = 1;
+    // Held for a whole flush, so the scheduled one and the one on shutdown never overlap
+    private final Object flushLock = new Object();
+
+    // Seconds not yet written to the DB, per device and day. Guarded by 'this'.
+    private Map<DayKey, Long> pending = new HashMap<>();
+    // Seconds taken by the flush in progress, still counted by readers until committed
+    private Map<DayKey, Long> inFlight = new HashMap<>();
+    // Individual sessions behind 'pending', inserted with the same flush
+    private List<JournalEntry> pendingSessions = new ArrayList<>();
+
+    // Full day totals (DB + unflushed) of the days someone asked for. Guarded by 'this'.
+    private final Map<DayKey, DayTotal> liveTotals = new HashMap<>();
+    // Lets getDayTotal tell whether a flush overlapped its DB read. Guarded by 'this'.
+    private boolean flushing;
+    private long flushGeneration;
+
+    @PostConstruct
+    public void open() throws IOException {
+        Path path = Path.of(journalPath);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        long flushed = loadCellJournalMarkRepository.findById(LoadCellJournalMark.ID)
+                .map(LoadCellJournalMark::getFlushedSequence)
+                .orElse(0L);
+        nextSequence = flushed + 1;
+        int skipped = 0;
+        if (Files.exists(path)) {
+            for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                JournalEntry entry = JournalEntry.parse(line);
+                if (entry == null) {
+                    continue;
+                }
+                nextSequence = Math.max(nextSequence, entry.sequence() + 1);
+                if (entry.sequence() <= flushed) {
+                    // Committed, but we crashed before the journal was compacted
+                    skipped++;
+                    continue;
+                }
+                pending.merge(entry.key(), entry.seconds(), Long::sum);
+                pendingSessions.add(entry);
+            }
+        }
+        journal = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        if (!pending.isEmpty() || skipped > 0) {
+            System.out.println("[DailyExerciseAccumulator] Replayed " + pendingSessions.size()
+                    + " unflushed sessions from journal, skipped " + skipped + " already flushed");
+        }
+    }
+
+    /**
+     * Records a finished session. Only touches the local journal and memory.
+     */
+    public synchronized void record(int deviceId, LocalDateTime start, LocalDateTime end, long seconds) {
+        JournalEntry entry = new JournalEntry(nextSequence++, deviceId, start, end, seconds);
+        try {
+            journal.write(ByteBuffer.wrap(entry.format().getBytes(StandardCharsets.UTF_8)));
+            journal.force(false);
+        } catch (IOException e) {
+            // Still keep it in memory; it will reach the DB unless we crash first
+            System.err.println("[DailyExerciseAccumulator] Failed to journal session: " + e.getMessage());
+        }
+        pending.merge(entry.key(), seconds, Long::sum);
+        pendingSessions.add(entry);
+        liveTotals.computeIfPresent(entry.key(), (key, total) -> new DayTotal(total.seconds() + seconds, total.goal()));
+    }
+
+    /**
+     * Seconds recorded for the day so far, flushed or not, and the day's goal.
+     * Only the first call per device and day reads the DB.
+     */
+    public DayTotal getDayTotal(int deviceId, LocalDate date) {
+        DayKey key = new DayKey(deviceId, date);
+        while (true) {
+            long generation;
+            synchronized (this) {
+                DayTotal total = liveTotals.get(key);
+                if (total != null) {
+                    return total;
+                }
+                generation = flushing ? -1 : flushGeneration;
+            }
+            if (generation < 0) {
+                // A flush is moving seconds into the DB right now; the row would be ambiguous
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+                continue;
+            }
+
+            // Read outside the lock so recording sessions never waits on the DB
+            LoadCellSession session = loadCellSessionRepository.findByDeviceIdAndDate(deviceId, date);
+            synchronized (this) {
+                // Only trust the row if no flush moved seconds from 'pending' into the DB meanwhile
+                if (!flushing && flushGeneration == generation) {
+                    long seconds = (session != null ? session.getDurationSeconds() : 0L) + pending.getOrDefault(key, 0L);
+                    long goal = session != null ? session.getGoal() : LoadCellService.DEFAULT_GOAL_SECONDS;
+                    DayTotal total = new DayTotal(seconds, goal);
+                    liveTotals.keySet().removeIf(other -> other.date().isBefore(date.minusDays(1)));
+                    liveTotals.put(key, total);
+                    return total;
+                }
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+    }
+
+    /**
+     * Seconds recorded for the day that are not in the DB yet.
+     */
+    public synchronized long getUnflushedSeconds(int deviceId, LocalDate date) {
+        DayKey key = new DayKey(deviceId, date);
+        return pending.getOrDefault(key, 0L) + inFlight.getOrDefault(key, 0L);
+    }
+
+    /**
+     * Unflushed seconds per day within [startDate, endDate].
+     */
+    public synchronized Map<LocalDate, Long> getUnflushedSeconds(int deviceId, LocalDate startDate, LocalDate endDate) {
+        Map<LocalDate, Long> result = new TreeMap<>();
+        for (Map<DayKey, Long> source : List.of(pending, inFlight)) {
+            source.forEach((key, seconds) -> {
+                if (key.deviceId() == deviceId
+                        && !key.date().isBefore(startDate) && !key.date().isAfter(endDate)) {
+                    result.merge(key.date(), seconds, Long::sum);
+                }
+            });
+        }
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${loadcell.flush.interval-ms:30000}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        synchronized (flushLock) {
+            flush();
+            journal.close();
+        }
+    }
+
+    /**
+     * Writes everything accumulated so far to the DB in one transaction,
+     * then drops the flushed entries from the journal.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            flushLocked();
+        }
+    }
+
+    private void flushLocked() {
+        Map<DayKey, Long> batch;
+        List<JournalEntry> sessions;
+        long journalMark;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new HashMap<>();
+            inFlight = batch;
+            flushing = true;
+            sessions = pendingSessions;
+            pendingSessions = new ArrayList<>();
+            try {
+                journalMark = journal.size();
+            } catch (IOException e) {
+                journalMark = -1;
+            }
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                batch.forEach(this::addToDailyTotal);
+                loadCellExerciseRepository.saveAll(sessions.stream().map(JournalEntry::toExercise).toList());
+                long flushedSequence = sessions.stream().mapToLong(JournalEntry::sequence).max().orElse(0L);
+                loadCellJournalMarkRepository.save(new LoadCellJournalMark(LoadCellJournalMark.ID, flushedSequence));
+            });
+        } catch (RuntimeException e) {
+            System.err.println("[DailyExerciseAccumulator] Flush failed, will retry: " + e.getMessage());
+            synchronized (this) {
+                batch.forEach((key, seconds) -> pending.merge(key, seconds, Long::sum));
+                sessions.addAll(pendingSessions);
+                pendingSessions = sessions;
+                inFlight = new HashMap<>();
+                flushing = false;
+                flushGeneration++;
+            }
+            return;
+        }
+
+        synchronized (this) {
+            inFlight = new HashMap<>();
+            flushing = false;
+            flushGeneration++;
+            if (journalMark >= 0) {
+                compactJournal(journalMark);
+            }
+        }
+    }
+
+    private void addToDailyTotal(DayKey key, long seconds) {
+        LoadCellSession session = loadCellSessionRepository.findByDeviceIdAndDate(key.deviceId(), key.date());
+        if (session == null) {
+            session = new LoadCellSession();
+            session.setDeviceId(key.deviceId());
+            session.setDate(key.date());
+            session.setGoal(LoadCellService.DEFAULT_GOAL_SECONDS);
+        }
+
+        long updatedDuration = session.getDurationSeconds() + seconds;
+        session.setDurationSeconds(updatedDuration);
+        if (session.getGoal() > 0) {
+            float percentage = (float) updatedDuration / session.getGoal() * 100f;
+            session.setPercentage(percentage);
+        } else {
+            session.setPercentage(0f);
+        }
+        loadCellSessionRepository.save(session);
+    }
+
+    /**
+     * Keeps only the journal bytes written after {@code flushedUpTo}. Caller holds the lock.
+     */
+    private void compactJournal(long flushedUpTo) {
+        Path path = Path.of(journalPath);
+        Path tmp = Path.of(journalPath + ".tmp");
+        try {
+            byte[] all = Files.readAllBytes(path);
+            int from = (int) Math.min(flushedUpTo, all.length);
+            journal.close();
+            Files.write(tmp, Arrays.copyOfRange(all, from, all.length));
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("[DailyExerciseAccumulator] Failed to compact journal: " + e.getMessage());
+        } finally {
+            try {
+                journal = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                System.err.println("[DailyExerciseAccumulator] Failed to reopen journal: " + e.getMessage());
+            }
+        }
+    }
+
+    private record DayKey(int deviceId, LocalDate date) {
+    }
+
+    public record DayTotal(long seconds, long goal) {
+    }
+
+    /**
+     * One line of the journal: {@code sequence,deviceId,start,end,seconds}.
+     */
+    private record JournalEntry(long sequence, int deviceId, LocalDateTime start, LocalDateTime end, long seconds) {
+
+        DayKey key() {
+            return new DayKey(deviceId, end.toLocalDate());
+        }
+
+        LoadCellExercise toExercise() {
+            LoadCellExercise exercise = new LoadCellExercise();
+            exercise.setDeviceId(deviceId);
+            exercise.setDate(end.toLocalDate());
+            exercise.setStartTime(start);
+            exercise.setEndTime(end);
+            exercise.setDurationSeconds(seconds);
+            return exercise;
+        }
+
+        String format() {
+            return sequence + "," + deviceId + "," + start + "," + end + "," + seconds + "\n";
+        }
+
+        static JournalEntry parse(String line) {
+            String[] parts = line.split(",");
+            if (parts.length != 5) {
+                return null; // torn last line from a crash
+            }
+            try {
+                return new JournalEntry(Long.parseLong(parts[0]),
+                        Integer.parseInt(parts[1]),
+                        LocalDateTime.parse(parts[2]),
+                        LocalDateTime.parse(parts[3]),
+                        Long.parseLong(parts[4]));
+            } catch (RuntimeException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.tracker.demo.service;
 
 import com.tracker.demo.dto.Task;
+import com.tracker.demo.util.GitHubRateLimiter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
@@ -12,6 +14,8 @@ import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.WeekFields;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -20,16 +24,33 @@ import java.util.stream.Collectors;
 public class DailyTaskService {
 
     private final GitHubService gitHubService;
+    // Reads: GitHubService, or LocalGitMirror when github.mirror.enabled
+    private final NoteContentSource noteContentSource;
     private static final Pattern CHECKBOX_PATTERN = Pattern.compile("^- \\[([ xX])\\] (.*)$");
 
-    public DailyTaskService(GitHubService gitHubService) {
+    // Whether push webhooks invalidate caches, so parsed notes can be kept indefinitely
+    @Value("${github.webhook.enabled:false}")
+    private boolean pushInvalidation;
+
+    // Parsed tasks per note path; see fetchNoteTasks
+    private final Map<String, List<Task>> parsedNotes = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public DailyTaskService(GitHubService gitHubService, NoteContentSource noteContentSource) {
         this.gitHubService = gitHubService;
+        this.noteContentSource = noteContentSource;
     }
 
     // ------------------------------------------------------------------------
     // 1) FETCH A SINGLE DAY’S TASKS
     // ------------------------------------------------------------------------
     public List<Task> fetchMarkdownLocalDate(LocalDate localDate) {
+        String path = dailyPath(localDate);
+        return fetchNotesTasks(List.of(path)).get(path);
+    }
+
+    // e.g. "2024-12/W52/2024-12-26.md"
+    private static String dailyPath(LocalDate localDate) {
         // e.g. "2024-12"
         String yearMonthFolder = localDate.format(DateTimeFormatter.ofPattern("yyyy-MM"));
         WeekFields customWeekFields = WeekFields.of(DayOfWeek.SUNDAY, 1);
@@ -40,16 +61,74 @@ public class DailyTaskService {
 
         // e.g. "2024-12-26.md"
         String dailyFileName = localDate.toString() + ".md";
+        return String.format("%s/%s/%s", yearMonthFolder, weekFolder, dailyFileName);
+    }
 
-        // Fetch the file for localDate's path
-        String mdContent = gitHubService.getContentAPI(
-                String.format("%s/%s/%s", yearMonthFolder, weekFolder, dailyFileName)
-        );
+    /**
+     * Parsed tasks per note path (empty if there is no note).
+     *
+     * Several paths are read with one {@link NoteContentSource#getContents} call, which
+     * GitHubService serves from its caches and batched GraphQL queries; a single path is
+     * read with getContent, revalidated by ETag.
+     *
+     * When push webhooks keep us informed (github.webhook.enabled), parsed notes, including
+     * "no note here", are kept until {@link #invalidate} names their path, so dashboard
+     * loads don't touch GitHub at all. Callers get fresh Task copies they may modify.
+     */
+    private Map<String, List<Task>> fetchNotesTasks(Collection<String> paths) {
+        Map<String, List<Task>> result = new HashMap<>();
+        List<String> pending = new ArrayList<>();
+        for (String path : new LinkedHashSet<>(paths)) {
+            List<Task> parsed = pushInvalidation ? parsedNotes.get(path) : null;
+            if (parsed != null) {
+                result.put(path, copyOf(parsed));
+            } else {
+                pending.add(path);
+            }
+        }
+        if (pending.isEmpty()) {
+            return result;
+        }
+
+        long generation = invalidations.get();
+        Map<String, String> contents = pending.size() == 1
+                ? Collections.singletonMap(pending.get(0), noteContentSource.getContent(pending.get(0)))
+                : noteContentSource.getContents(pending);
+
+        for (String path : pending) {
+            String content = contents.get(path);
+            List<Task> parsed = parseMarkdown(content != null ? content : "");
+            // A push that arrived while we were fetching may have made this copy stale
+            if (pushInvalidation && invalidations.get() == generation) {
+                parsedNotes.put(path, parsed);
+                parsed = copyOf(parsed);
+            }
+            result.put(path, parsed);
+        }
+        return result;
+    }
 
-        if (mdContent == null || mdContent.isEmpty()) {
-            return Collections.emptyList();
+    private static List<Task> copyOf(List<Task> tasks) {
+        List<Task> copy = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            copy.add(new Task(task.getDescription(), task.isCompleted()));
         }
-        return parseMarkdown(mdContent);
+        return copy;
+    }
+
+    /**
+     * Drops the parsed tasks of notes that a push added, modified or removed.
+     */
+    public void invalidate(Collection<String> paths) {
+        invalidations.incrementAndGet();
+        for (String path : paths) {
+            parsedNotes.remove(path);
+        }
+    }
+
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        parsedNotes.clear();
     }
 
     // ------------------------------------------------------------------------
@@ -57,11 +136,17 @@ public class DailyTaskService {
     // ------------------------------------------------------------------------
     public Map<LocalDate, List<Task>> fetchMarkdownInRange(LocalDate startDate, LocalDate endDate) {
         Map<LocalDate, List<Task>> notesMap = new HashMap<>();
+        List<String> paths = new ArrayList<>();
+        for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+            paths.add(dailyPath(day));
+        }
+
+        // All days in one bulk read
+        Map<String, List<Task>> tasksByPath = fetchNotesTasks(paths);
         LocalDate current = startDate;
 
         while (!current.isAfter(endDate)) {
-            List<Task> noteContent = fetchMarkdownLocalDate(current);
-            notesMap.put(current, noteContent);
+            notesMap.put(current, tasksByPath.get(dailyPath(current)));
             current = current.plusDays(1);
         }
 
@@ -91,31 +176,25 @@ public class DailyTaskService {
     }
 
     // ------------------------------------------------------------------------
-    // 4) FETCH WEEKLY MARKDOWN
+    // 4) WEEKLY MARKDOWN PATH
     // ------------------------------------------------------------------------
-    private List<Task> fetchWeeklyMarkdown(LocalDate date) {
+    private static String weeklyPath(LocalDate date) {
         String yearMonth = date.format(DateTimeFormatter.ofPattern("yyyy-MM"));
         WeekFields customWeekFields = WeekFields.of(DayOfWeek.SUNDAY, 1);
         int weekNumber = date.get(customWeekFields.weekOfWeekBasedYear());
         String weeklyFileName = "Weekly.md";
 
-        String path = String.format("%s/W%02d/%s", yearMonth, weekNumber, weeklyFileName);
-        String content = gitHubService.getContentAPI(path);
-
-        return parseMarkdown(content != null ? content : "");
+        return String.format("%s/W%02d/%s", yearMonth, weekNumber, weeklyFileName);
     }
 
     // ------------------------------------------------------------------------
-    // 5) FETCH MONTHLY MARKDOWN
+    // 5) MONTHLY MARKDOWN PATH
     // ------------------------------------------------------------------------
-    private List<Task> fetchMonthlyMarkdown(LocalDate date) {
+    private static String monthlyPath(LocalDate date) {
         String yearMonth = date.format(DateTimeFormatter.ofPattern("yyyy-MM"));
         String monthlyFileName = "Monthly.md";
 
-        String path = String.format("%s/%s", yearMonth, monthlyFileName);
-        String content = gitHubService.getContentAPI(path);
-
-        return parseMarkdown(content != null ? content : "");
+        return String.format("%s/%s", yearMonth, monthlyFileName);
     }
 
     public Map<String, List<Task>> fetchAggregatedIncompleteTasks(LocalDate startDate, LocalDate endDate) {
@@ -128,13 +207,28 @@ public class DailyTaskService {
         Set<String> fetchedWeeks = new HashSet<>();
         Set<String> fetchedMonths = new HashSet<>();
 
+        // Every note the range needs (weeklies and monthlies once, as below), read in one bulk fetch up front
+        List<String> paths = new ArrayList<>();
+        Set<String> weeks = new HashSet<>();
+        Set<String> months = new HashSet<>();
+        for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+            paths.add(dailyPath(day));
+            if (weeks.add(day.getYear() + "-W" + day.get(WeekFields.of(DayOfWeek.SUNDAY, 1).weekOfWeekBasedYear()))) {
+                paths.add(weeklyPath(day));
+            }
+            if (months.add(day.format(DateTimeFormatter.ofPattern("yyyy-MM")))) {
+                paths.add(monthlyPath(day));
+            }
+        }
+        Map<String, List<Task>> tasksByPath = fetchNotesTasks(paths);
+
         LocalDate current = startDate;
 
         while (!current.isAfter(endDate)) {
             // ---------------------------
             // Daily tasks
             // ---------------------------
-            List<Task> daily = fetchMarkdownLocalDate(current);
+            List<Task> daily = tasksByPath.get(dailyPath(current));
             daily = daily.stream()
                     .filter(task -> !task.isCompleted())
                     .collect(Collectors.toList());
@@ -149,7 +243,7 @@ public class DailyTaskService {
             String weekKey = current.getYear() + "-W" + weekNumber;
 
             if (!fetchedWeeks.contains(weekKey)) {
-                List<Task> wTasks = fetchWeeklyMarkdown(current);
+                List<Task> wTasks = tasksByPath.get(weeklyPath(current));
                 wTasks = wTasks.stream()
                         .filter(task -> !task.isCompleted())
                         .collect(Collectors.toList());
@@ -164,7 +258,7 @@ public class DailyTaskService {
             // ---------------------------
             String monthKey = current.format(DateTimeFormatter.ofPattern("yyyy-MM"));
             if (!fetchedMonths.contains(monthKey)) {
-                List<Task> mTasks = fetchMonthlyMarkdown(current);
+                List<Task> mTasks = tasksByPath.get(monthlyPath(current));
                 mTasks = mTasks.stream()
                         .filter(task -> !task.isCompleted())
                         .collect(Collectors.toList());
@@ -335,9 +429,16 @@ public class DailyTaskService {
      *  1) Check if today's daily .md file on GitHub exists.
      *  2) If NOT, then create it with the top 2 tasks from incomplete daily,
      *     then weekly, then monthly (by descending priority).
+     *
+     * The aggregate reads every note since January 1st, so its GitHub calls go in the
+     * batch lane and are paced behind dashboard requests.
      */
     @Scheduled(cron = "0 5 0 * * ?", zone = "America/Los_Angeles")
     public void autoCreateDailyTaskForToday() {
+        GitHubRateLimiter.inBatchLane(this::createDailyTaskForToday);
+    }
+
+    private void createDailyTaskForToday() {
         LocalDate today = LocalDate.now();
         LocalDate yesterday = today.minusDays(1);
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM");
@@ -349,7 +450,7 @@ public class DailyTaskService {
         String yesterdayWeekFolder = String.format("W%02d", yesterdayIsoWeek);
         String yesterdayFileName = yesterday.toString() + ".md";
         String yesterdayPath = String.format("%s/%s/%s", yesterdayYearMonth, yesterdayWeekFolder, yesterdayFileName);
-        String yesterdayContent = gitHubService.getContentAPI(yesterdayPath);
+        String yesterdayContent = noteContentSource.getContent(yesterdayPath);
 
         if (yesterdayContent != null && !yesterdayContent.isEmpty()) {
             List<Task> yesterdayTasks = parseMarkdown(yesterdayContent);
@@ -367,6 +468,7 @@ public class DailyTaskService {
         String todayWeekFolder = String.format("W%02d", todayIsoWeek);
         String todayFileName = today.toString() + ".md";
         String todayPath = String.format("%s/%s/%s", todayYearMonth, todayWeekFolder, todayFileName);
+        // Asked of GitHub itself: a mirror that hasn't fetched yet must not make us overwrite the note
         String existingContent = gitHubService.getContentAPI(todayPath);
 
         if (existingContent != null && !existingContent.isEmpty()) {
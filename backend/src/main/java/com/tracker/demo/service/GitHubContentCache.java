@@ -0,0 +1,215 @@
+package com.tracker.demo.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * On-disk cache of GitHub file content for conditional GETs.
+ *
+ * Each entry keeps the body plus the ETag and Last-Modified GitHub sent with it, so
+ * a refetch can send If-None-Match and a 304 is answered from here. Entries are two
+ * files named after a hash of the repo path: {@code <hash>.body} and {@code <hash>.properties}
+ * (path, etag, lastModified). Everything is loaded at startup, so a restart doesn't
+ * download the notes again, only revalidates them.
+ *
+ * Blobs (keys under {@value #BLOB_PREFIX}, content by git object id) never go stale, so
+ * nothing would ever remove them; the {@code github.cache.max-blobs} least recently used
+ * are kept and older ones evicted.
+ */
+@Component
+public class GitHubContentCache {
+
+    public record Entry(String path, String body, String etag, String lastModified) {
+    }
+
+    public static final String BLOB_PREFIX = "blob/";
+
+    private final Path directory;
+    private final int maxBlobs;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // Cached blob paths, least recently used first; guarded by itself
+    private final Map<String, Boolean> blobs = new LinkedHashMap<>(16, 0.75f, true);
+
+    public GitHubContentCache(@Value("${github.cache.path:./github-cache}") String directory,
+                              @Value("${github.cache.max-blobs:2000}") int maxBlobs) {
+        this.directory = Path.of(directory);
+        this.maxBlobs = maxBlobs;
+    }
+
+    @PostConstruct
+    public void load() throws IOException {
+        Files.createDirectories(directory);
+        // Left behind by writes interrupted by a crash
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.tmp")) {
+            for (Path tmp : files) {
+                Files.deleteIfExists(tmp);
+            }
+        }
+        Map<String, FileTime> blobTimes = new HashMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.properties")) {
+            for (Path metaFile : files) {
+                try {
+                    Entry entry = read(metaFile);
+                    if (entry != null) {
+                        entries.put(entry.path(), entry);
+                        if (isBlob(entry.path())) {
+                            blobTimes.put(entry.path(), Files.getLastModifiedTime(metaFile));
+                        }
+                    }
+                } catch (IOException e) {
+                    System.err.println("[GitHubContentCache] Skipping unreadable entry " + metaFile + ": " + e.getMessage());
+                }
+            }
+        }
+        // Oldest first, so the bound evicts the blobs written longest ago
+        blobTimes.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue())
+                .forEach(blob -> trackBlob(blob.getKey()));
+        System.out.println("[GitHubContentCache] Loaded " + entries.size() + " cached files from " + directory);
+    }
+
+    public Entry get(String path) {
+        Entry entry = entries.get(path);
+        if (entry != null && isBlob(path)) {
+            synchronized (blobs) {
+                blobs.get(path); // marks it recently used
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Stores a freshly downloaded body. Failing to write only costs a refetch later.
+     */
+    public void put(String path, String body, String etag, String lastModified) {
+        Entry entry = new Entry(path, body, etag, lastModified);
+        entries.put(path, entry);
+        String key = key(path);
+        try {
+            // Body first: a .properties file only ever points at a complete body
+            writeAtomically(directory.resolve(key + ".body"), body.getBytes(StandardCharsets.UTF_8));
+
+            Properties meta = new Properties();
+            meta.setProperty("path", path);
+            if (etag != null) {
+                meta.setProperty("etag", etag);
+            }
+            if (lastModified != null) {
+                meta.setProperty("lastModified", lastModified);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            meta.store(out, null);
+            writeAtomically(directory.resolve(key + ".properties"), out.toByteArray());
+        } catch (IOException e) {
+            System.err.println("[GitHubContentCache] Failed to persist " + path + ": " + e.getMessage());
+        }
+        if (isBlob(path)) {
+            trackBlob(path);
+        }
+    }
+
+    public void remove(String path) {
+        if (entries.remove(path) == null) {
+            return;
+        }
+        if (isBlob(path)) {
+            synchronized (blobs) {
+                blobs.remove(path);
+            }
+        }
+        deleteFiles(path);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void trackBlob(String path) {
+        List<String> evicted = new ArrayList<>();
+        synchronized (blobs) {
+            blobs.put(path, Boolean.TRUE);
+            Iterator<String> oldest = blobs.keySet().iterator();
+            while (blobs.size() > maxBlobs && oldest.hasNext()) {
+                evicted.add(oldest.next());
+                oldest.remove();
+            }
+        }
+        for (String blob : evicted) {
+            entries.remove(blob);
+            deleteFiles(blob);
+        }
+    }
+
+    private void deleteFiles(String path) {
+        String key = key(path);
+        try {
+            Files.deleteIfExists(directory.resolve(key + ".properties"));
+            Files.deleteIfExists(directory.resolve(key + ".body"));
+        } catch (IOException e) {
+            System.err.println("[GitHubContentCache] Failed to delete " + path + ": " + e.getMessage());
+        }
+    }
+
+    private Entry read(Path metaFile) throws IOException {
+        Properties meta = new Properties();
+        try (InputStream in = Files.newInputStream(metaFile)) {
+            meta.load(in);
+        }
+        String path = meta.getProperty("path");
+        if (path == null) {
+            return null;
+        }
+        Path bodyFile = directory.resolve(key(path) + ".body");
+        if (!Files.exists(bodyFile)) {
+            return null;
+        }
+        return new Entry(path, Files.readString(bodyFile, StandardCharsets.UTF_8),
+                meta.getProperty("etag"), meta.getProperty("lastModified"));
+    }
+
+    private void writeAtomically(Path target, byte[] bytes) throws IOException {
+        // A temp file of its own, so concurrent puts of the same path don't write into each other
+        Path tmp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        try {
+            Files.write(tmp, bytes);
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static boolean isBlob(String path) {
+        return path.startsWith(BLOB_PREFIX);
+    }
+
+    private static String key(String path) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(path.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
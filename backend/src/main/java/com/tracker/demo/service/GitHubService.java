@@ -1,18 +1,92 @@
 package com.tracker.demo.service;
 
+import com.tracker.demo.util.GitHubRateLimiter;
+import com.tracker.demo.util.SingleFlight;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
-import java.nio.charset.StandardCharsets;
-import java.util.Base64;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
-public class GitHubService {
+public class GitHubService implements NoteContentSource {
+
+    // Shared keep-alive HTTP/2 client with timeouts and call metrics (GitHubClientConfig)
+    @Autowired
+    private RestTemplate gitHubRestTemplate;
+
+    @Value("${github.api.base-url:https://api.github.com}")
+    private String apiBaseUrl;
+
+    @Autowired
+    private GitHubContentCache contentCache;
+
+    // How long a resolved tree is used before asking GitHub whether the branch moved
+    @Value("${github.tree.max-age-ms:10000}")
+    private long treeMaxAgeMillis;
+
+    // Last resolved tree of the branch: path -> blob SHA. Guarded by 'this'.
+    private String treeCommitSha;
+    private String treeSha;
+    private Map<String, String> treeIndex;
+    private long treeCheckedAt;
+    private boolean treeInvalidated;
+
+    // Last known head of the branch and its tree, the parent of our next commit.
+    // Set by tree lookups and by commitFiles. Guarded by 'this'.
+    private String headCommitSha;
+    private String headTreeSha;
+
+    // Serializes our own commits, so they don't race each other for the ref
+    private final Object commitLock = new Object();
+
+    // With push webhooks (github.webhook.enabled) caches are trusted until a push names
+    // their path, instead of being revalidated with GitHub on every read
+    @Value("${github.webhook.enabled:false}")
+    private boolean pushInvalidation;
+
+    // Paths whose cached content was confirmed by GitHub since startup; a push may
+    // have happened while we were down, so entries loaded from disk are not trusted yet
+    private final Set<String> verifiedPaths = ConcurrentHashMap.newKeySet();
+
+    // Concurrent reads of the same path share one request, and concurrent bulk reads of
+    // the same chunk of paths one GraphQL query. Only callers of the same rate-limit lane
+    // share: an interactive read must not wait out a batch call the limiter holds back.
+    private final SingleFlight<Flight<String>, String> fetches = new SingleFlight<>();
+    private final SingleFlight<Flight<List<String>>, Map<String, String>> chunkFetches = new SingleFlight<>();
+
+    private record Flight<T>(GitHubRateLimiter.Lane lane, T target) {
+    }
+
+    // Paths GitHub answered 404 for -> until when to keep answering null without asking
+    // again. Most days of a range have no note, and the dashboard asks for them in bursts.
+    private final Map<String, Long> notFoundUntil = new ConcurrentHashMap<>();
+
+    @Value("${github.cache.not-found-ttl-ms:30000}")
+    private long notFoundTtlMillis;
+
+    // GraphQL endpoint for bulk reads; empty = <base-url>/graphql
+    @Value("${github.graphql.url:}")
+    private String graphqlUrl;
+
+    // Files per GraphQL query, kept well below GitHub's query size and node limits
+    @Value("${github.graphql.batch-size:50}")
+    private int graphqlBatchSize;
+
+    // Bumped by invalidate(); a fetch that overlapped one must not mark its result as trusted
+    private final AtomicLong invalidations = new AtomicLong();
 
     @Value("${github.repo.owner}")
     private String owner;
@@ -26,123 +100,438 @@ public class GitHubService {
     @Value("${github.token}")
     private String githubToken;
 
+    @Override
+    public String getContent(String path) {
+        return getContentAPI(path);
+    }
+
     /**
      * Fetch a file from GitHub in raw format.
      * Returns the file's raw content or null if not found.
+     *
+     * Files fetched before are revalidated with If-None-Match; on 304 the body
+     * comes from the on-disk GitHubContentCache instead of being downloaded again.
+     * Concurrent calls for the same path share one request, and a 404 is remembered
+     * for github.cache.not-found-ttl-ms.
      */
     public String getContentAPI(String fullPath) {
+        Long missingUntil = notFoundUntil.get(fullPath);
+        if (missingUntil != null) {
+            if (System.currentTimeMillis() < missingUntil) {
+                return null;
+            }
+            notFoundUntil.remove(fullPath, missingUntil);
+        }
+        return fetches.run(new Flight<>(GitHubRateLimiter.currentLane(), fullPath), () -> fetchContent(fullPath));
+    }
+
+    private String fetchContent(String fullPath) {
+        long generation = invalidations.get();
         String apiUrl = String.format(
-                "https://api.github.com/repos/%s/%s/contents/%s?ref=%s",
-                owner, repo, fullPath, branch
+                "%s/repos/%s/%s/contents/%s?ref=%s",
+                apiBaseUrl, owner, repo, fullPath, branch
         );
 
         HttpHeaders headers = new HttpHeaders();
         headers.setBearerAuth(githubToken);
         headers.set("Accept", "application/vnd.github.raw");
 
+        GitHubContentCache.Entry cached = contentCache.get(fullPath);
+        if (cached != null && pushInvalidation && verifiedPaths.contains(fullPath)) {
+            return cached.body(); // A push touching this path would have dropped it
+        }
+        if (cached != null) {
+            if (cached.etag() != null) {
+                headers.setIfNoneMatch(cached.etag());
+            } else if (cached.lastModified() != null) {
+                headers.set(HttpHeaders.IF_MODIFIED_SINCE, cached.lastModified());
+            }
+        }
+
         HttpEntity<?> request = new HttpEntity<>(headers);
-        RestTemplate restTemplate = new RestTemplate();
 
         try {
-            ResponseEntity<String> response = restTemplate.exchange(
+            ResponseEntity<String> response = gitHubRestTemplate.exchange(
                     apiUrl, HttpMethod.GET, request, String.class
             );
-            if (response.getStatusCode() == HttpStatus.OK) {
-                return response.getBody(); // Raw markdown content
+            if (response.getStatusCode() == HttpStatus.NOT_MODIFIED && cached != null) {
+                markVerified(fullPath, generation);
+                return cached.body(); // Unchanged since we cached it
+            } else if (response.getStatusCode() == HttpStatus.OK) {
+                String body = response.getBody() != null ? response.getBody() : ""; // Raw markdown content
+                contentCache.put(fullPath, body, response.getHeaders().getETag(),
+                        response.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED));
+                markVerified(fullPath, generation);
+                return body;
             } else {
                 throw new RuntimeException("Error fetching file from GitHub: " + response.getStatusCode());
             }
         } catch (HttpClientErrorException e) {
             if (e.getStatusCode().equals(HttpStatus.NOT_FOUND)) {
+                contentCache.remove(fullPath);
+                if (invalidations.get() == generation) {
+                    notFoundUntil.put(fullPath, System.currentTimeMillis() + notFoundTtlMillis);
+                }
                 return null; // File does not exist
             }
             throw e; // Other errors rethrown
         }
     }
 
+    private void markVerified(String fullPath, long generation) {
+        verifiedPaths.add(fullPath);
+        if (invalidations.get() != generation) {
+            verifiedPaths.remove(fullPath); // A push may have changed it while we were reading
+        }
+    }
+
     /**
-     * Create or update a file in GitHub with the given content.
-     * If the file exists, we will retrieve its 'sha' and include it in the PUT.
-     * If it doesn't exist, we won't include 'sha', so GitHub will create it.
+     * Contents of many files with as few requests as possible, path -> content
+     * (null if there is no such file).
      *
-     * @param fullPath      e.g. "2024-12/W52/2024-12-26.md"
-     * @param newContent    the file content (plain text)
-     * @param commitMessage commit message to show in GitHub
+     * Files missing from the tree listing, remembered 404s and blobs cached before cost
+     * no request. The rest is read by GraphQL, up to github.graphql.batch-size files per
+     * query ({@code object(expression: "branch:path")} under one alias each), instead
+     * of one REST call per file. Concurrent calls for the same chunk of paths (e.g. the
+     * same date range from several dashboards) share one query.
      */
-    public void createOrUpdateFile(String fullPath, String newContent, String commitMessage) {
-        // 1) Build the GitHub API URL (JSON version for reading file metadata)
-        String apiUrl = String.format(
-                "https://api.github.com/repos/%s/%s/contents/%s",
-                owner, repo, fullPath
+    @Override
+    public Map<String, String> getContents(Collection<String> paths) {
+        Map<String, String> contents = new HashMap<>();
+        Map<String, String> tree = getTreeIndex();
+        long now = System.currentTimeMillis();
+
+        List<String> pending = new ArrayList<>();
+        for (String path : paths) {
+            Long missingUntil = notFoundUntil.get(path);
+            GitHubContentCache.Entry cached = contentCache.get(path);
+            if (missingUntil != null && now < missingUntil) {
+                contents.put(path, null);
+            } else if (cached != null && pushInvalidation && verifiedPaths.contains(path)) {
+                contents.put(path, cached.body());
+            } else if (tree != null && !tree.containsKey(path)) {
+                contents.put(path, null);
+            } else {
+                GitHubContentCache.Entry blob = tree != null ? contentCache.get(GitHubContentCache.BLOB_PREFIX + tree.get(path)) : null;
+                if (blob != null) {
+                    contents.put(path, blob.body());
+                } else {
+                    pending.add(path);
+                }
+            }
+        }
+
+        for (int from = 0; from < pending.size(); from += graphqlBatchSize) {
+            List<String> chunk = List.copyOf(pending.subList(from, Math.min(pending.size(), from + graphqlBatchSize)));
+            contents.putAll(chunkFetches.run(new Flight<>(GitHubRateLimiter.currentLane(), chunk), () -> fetchChunk(chunk)));
+        }
+        return contents;
+    }
+
+    private Map<String, String> fetchChunk(List<String> chunk) {
+        Map<String, String> contents = new HashMap<>();
+        try {
+            fetchContentsGraphQL(chunk, contents);
+        } catch (RestClientException e) {
+            System.err.println("[GitHubService] GraphQL fetch failed, reading " + chunk.size()
+                    + " file(s) one by one: " + e.getMessage());
+            for (String path : chunk) {
+                contents.put(path, getContentAPI(path));
+            }
+        }
+        return contents;
+    }
+
+    private void fetchContentsGraphQL(List<String> paths, Map<String, String> contents) {
+        long generation = invalidations.get();
+
+        StringBuilder declarations = new StringBuilder("$owner: String!, $name: String!");
+        StringBuilder fields = new StringBuilder();
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("owner", owner);
+        variables.put("name", repo);
+        for (int i = 0; i < paths.size(); i++) {
+            declarations.append(", $p").append(i).append(": String!");
+            fields.append(" f").append(i).append(": object(expression: $p").append(i)
+                    .append(") { ... on Blob { oid text isTruncated } }");
+            variables.put("p" + i, branch + ":" + paths.get(i));
+        }
+        Map<String, Object> body = new HashMap<>();
+        body.put("query", "query(" + declarations + ") { repository(owner: $owner, name: $name) {" + fields + " } }");
+        body.put("variables", variables);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(githubToken);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        ResponseEntity<Map> response = gitHubRestTemplate.exchange(
+                graphqlUrl.isEmpty() ? apiBaseUrl + "/graphql" : graphqlUrl,
+                HttpMethod.POST, new HttpEntity<>(body, headers), Map.class
         );
+        Map<?, ?> data = response.getBody() != null ? (Map<?, ?>) response.getBody().get("data") : null;
+        Map<?, ?> repository = data != null ? (Map<?, ?>) data.get("repository") : null;
+        if (repository == null) {
+            Object errors = response.getBody() != null ? response.getBody().get("errors") : null;
+            throw new RestClientException("GraphQL returned no repository: " + errors);
+        }
+
+        for (int i = 0; i < paths.size(); i++) {
+            String path = paths.get(i);
+            Map<?, ?> blob = (Map<?, ?>) repository.get("f" + i);
+            if (blob == null) {
+                // Not on the branch
+                if (invalidations.get() == generation) {
+                    notFoundUntil.put(path, System.currentTimeMillis() + notFoundTtlMillis);
+                }
+                contents.put(path, null);
+            } else if (Boolean.TRUE.equals(blob.get("isTruncated")) || blob.get("text") == null) {
+                contents.put(path, getContentAPI(path)); // too large or binary for GraphQL's text
+            } else {
+                String text = (String) blob.get("text");
+                contentCache.put(GitHubContentCache.BLOB_PREFIX + blob.get("oid"), text, null, null);
+                contents.put(path, text);
+            }
+        }
+    }
+
+    /**
+     * Every file on the branch, path -> blob SHA, from one recursive tree listing.
+     *
+     * The branch head is checked with a tiny SHA-only request; the listing is only
+     * downloaded again when the commit changed, and only rebuilt when its tree did.
+     * Returns null if the tree can't be listed (error, or too large for one response),
+     * in which case callers should fall back to fetching paths directly.
+     */
+    public synchronized Map<String, String> getTreeIndex() {
+        long now = System.currentTimeMillis();
+        if (treeIndex != null && !treeInvalidated && (pushInvalidation || now - treeCheckedAt < treeMaxAgeMillis)) {
+            return treeIndex;
+        }
+
+        HttpHeaders shaHeaders = new HttpHeaders();
+        shaHeaders.setBearerAuth(githubToken);
+        shaHeaders.set("Accept", "application/vnd.github.sha");
 
-        // 2) Attempt to get the JSON metadata about the file so we can retrieve 'sha' if it exists
-        String existingSha = null;
         try {
-            HttpHeaders getHeaders = new HttpHeaders();
-            getHeaders.setBearerAuth(githubToken);
-            getHeaders.set("Accept", "application/vnd.github+json");
-
-            RestTemplate restTemplate = new RestTemplate();
-            ResponseEntity<Map> response = restTemplate.exchange(
-                    apiUrl + "?ref=" + branch,
-                    HttpMethod.GET,
-                    new HttpEntity<>(getHeaders),
-                    Map.class
+            ResponseEntity<String> head = gitHubRestTemplate.exchange(
+                    String.format("%s/repos/%s/%s/commits/%s", apiBaseUrl, owner, repo, branch),
+                    HttpMethod.GET, new HttpEntity<>(shaHeaders), String.class
             );
-            if (response.getStatusCode() == HttpStatus.OK) {
-                // The file exists; we can pull 'sha' from the JSON
+            String commitSha = head.getBody() != null ? head.getBody().trim() : null;
+
+            if (commitSha != null && !commitSha.equals(treeCommitSha)) {
+                HttpHeaders treeHeaders = new HttpHeaders();
+                treeHeaders.setBearerAuth(githubToken);
+                treeHeaders.set("Accept", "application/vnd.github+json");
+
+                ResponseEntity<Map> response = gitHubRestTemplate.exchange(
+                        String.format("%s/repos/%s/%s/git/trees/%s?recursive=1", apiBaseUrl, owner, repo, commitSha),
+                        HttpMethod.GET, new HttpEntity<>(treeHeaders), Map.class
+                );
                 Map body = response.getBody();
-                if (body != null && body.containsKey("sha")) {
-                    existingSha = (String) body.get("sha");
+                if (body == null || Boolean.TRUE.equals(body.get("truncated"))) {
+                    System.err.println("[GitHubService] Tree listing of " + branch + " is incomplete; not using it");
+                    return null;
+                }
+
+                String newTreeSha = (String) body.get("sha");
+                if (!newTreeSha.equals(treeSha)) {
+                    Map<String, String> index = new HashMap<>();
+                    for (Object item : (List<?>) body.get("tree")) {
+                        Map<?, ?> node = (Map<?, ?>) item;
+                        if ("blob".equals(node.get("type"))) {
+                            index.put((String) node.get("path"), (String) node.get("sha"));
+                        }
+                    }
+                    treeIndex = Collections.unmodifiableMap(index);
+                    treeSha = newTreeSha;
                 }
+                treeCommitSha = commitSha;
             }
-        } catch (HttpClientErrorException e) {
-            // If 404, the file doesn't exist yet, so 'existingSha' remains null
-            if (!e.getStatusCode().equals(HttpStatus.NOT_FOUND)) {
-                throw e;
+            if (treeCommitSha != null) {
+                headCommitSha = treeCommitSha;
+                headTreeSha = treeSha;
             }
+            treeCheckedAt = now;
+            treeInvalidated = false;
+            return treeIndex;
+        } catch (RestClientException e) {
+            System.err.println("[GitHubService] Failed to list tree of " + branch + ": " + e.getMessage());
+            return null;
         }
+    }
+
+    /**
+     * Forgets cached content and 404s of the given paths (e.g. named by a push
+     * webhook), lets new reads bypass fetches already running for them, and makes
+     * the next tree lookup re-check the branch head.
+     * Blobs stay cached: a changed file gets a new blob SHA.
+     */
+    @Override
+    public void invalidate(Collection<String> paths) {
+        invalidations.incrementAndGet();
+        for (String path : paths) {
+            verifiedPaths.remove(path);
+            notFoundUntil.remove(path);
+            for (GitHubRateLimiter.Lane lane : GitHubRateLimiter.Lane.values()) {
+                fetches.forget(new Flight<>(lane, path));
+            }
+            contentCache.remove(path);
+        }
+        chunkFetches.forgetAll(); // any running chunk may hold one of them
+        synchronized (this) {
+            treeInvalidated = true;
+        }
+    }
+
+    /**
+     * Stops trusting anything cached without asking GitHub. Cached contents stay on
+     * disk and are revalidated with their ETags, so unchanged notes are not downloaded again.
+     */
+    @Override
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        verifiedPaths.clear();
+        notFoundUntil.clear();
+        fetches.forgetAll();
+        chunkFetches.forgetAll();
+        synchronized (this) {
+            treeInvalidated = true;
+        }
+    }
+
+    /**
+     * Create or update a file in GitHub with the given content.
+     * Same as {@link #commitFiles} with a single file.
+     *
+     * @param fullPath      e.g. "2024-12/W52/2024-12-26.md"
+     * @param newContent    the file content (plain text)
+     * @param commitMessage commit message to show in GitHub
+     */
+    public void createOrUpdateFile(String fullPath, String newContent, String commitMessage) {
+        commitFiles(Map.of(fullPath, newContent), commitMessage);
+    }
+
+    /**
+     * Writes several files in one commit through the Git Data API: one new tree on top
+     * of the current one (file contents inline), one commit, one ref update. That is three
+     * round trips however many files change, plus one to find the branch head unless a
+     * tree lookup or an earlier commit already told us. Either every change lands or none.
+     *
+     * If the branch moved since we last saw it, the ref update is refused (it is not a
+     * fast-forward); the head is then looked up again and the commit rebuilt once.
+     *
+     * @param changes       path -> new content; a null content deletes the file
+     * @param commitMessage commit message to show in GitHub
+     * @return SHA of the new commit
+     */
+    public String commitFiles(Map<String, String> changes, String commitMessage) {
+        synchronized (commitLock) {
+            String[] base;
+            synchronized (this) {
+                base = headCommitSha != null ? new String[]{headCommitSha, headTreeSha} : null;
+            }
+            if (base == null) {
+                base = fetchHead();
+            }
 
-        // 3) Prepare the JSON body for the PUT request
-        // We must base64-encode the newContent
-        String base64Encoded = Base64
-                .getEncoder()
-                .encodeToString(newContent.getBytes(StandardCharsets.UTF_8));
+            String commitSha;
+            try {
+                commitSha = commitOnto(base, changes, commitMessage);
+            } catch (HttpClientErrorException e) {
+                if (e.getStatusCode() != HttpStatus.UNPROCESSABLE_ENTITY && e.getStatusCode() != HttpStatus.CONFLICT) {
+                    throw e;
+                }
+                // Someone else pushed since we last looked
+                base = fetchHead();
+                commitSha = commitOnto(base, changes, commitMessage);
+            }
 
-        Map<String, Object> bodyMap = new HashMap<>();
-        bodyMap.put("message", commitMessage);
-        bodyMap.put("content", base64Encoded);
-        bodyMap.put("branch", branch);
-        if (existingSha != null) {
-            // If the file existed, we include the old sha
-            bodyMap.put("sha", existingSha);
+            // The cached copies are stale now; the next read downloads the new content
+            invalidate(changes.keySet());
+
+            System.out.println("Successfully committed " + changes.size() + " file(s) as " + commitSha
+                    + " with commit message: " + commitMessage);
+            return commitSha;
         }
+    }
 
-        // 4) Make the PUT request
-        HttpHeaders putHeaders = new HttpHeaders();
-        putHeaders.setBearerAuth(githubToken);
-        putHeaders.setContentType(MediaType.APPLICATION_JSON);
-        putHeaders.set("Accept", "application/vnd.github+json");
+    /**
+     * Creates tree and commit on top of {commitSha, treeSha} and moves the branch to it.
+     */
+    private String commitOnto(String[] base, Map<String, String> changes, String commitMessage) {
+        List<Map<String, Object>> entries = new ArrayList<>();
+        for (Map.Entry<String, String> change : changes.entrySet()) {
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("path", change.getKey());
+            entry.put("mode", "100644");
+            entry.put("type", "blob");
+            if (change.getValue() != null) {
+                entry.put("content", change.getValue());
+            } else {
+                entry.put("sha", null); // deletes the path
+            }
+            entries.add(entry);
+        }
 
-        HttpEntity<Map<String, Object>> putRequest = new HttpEntity<>(bodyMap, putHeaders);
-        RestTemplate restTemplate = new RestTemplate();
+        Map<String, Object> treeBody = new HashMap<>();
+        treeBody.put("base_tree", base[1]);
+        treeBody.put("tree", entries);
+        String newTreeSha = (String) postJson("git/trees", HttpMethod.POST, treeBody).get("sha");
 
-        ResponseEntity<String> putResponse = restTemplate.exchange(
-                apiUrl,
-                HttpMethod.PUT,
-                putRequest,
-                String.class
-        );
+        Map<String, Object> commitBody = new HashMap<>();
+        commitBody.put("message", commitMessage);
+        commitBody.put("tree", newTreeSha);
+        commitBody.put("parents", List.of(base[0]));
+        String newCommitSha = (String) postJson("git/commits", HttpMethod.POST, commitBody).get("sha");
 
-        if (putResponse.getStatusCode() != HttpStatus.CREATED
-                && putResponse.getStatusCode() != HttpStatus.OK) {
-            throw new RuntimeException("Failed to create/update file. Status: " + putResponse.getStatusCode()
-                    + " Body: " + putResponse.getBody());
+        Map<String, Object> refBody = new HashMap<>();
+        refBody.put("sha", newCommitSha);
+        refBody.put("force", false); // refused unless it is a fast-forward of the branch
+        postJson("git/refs/heads/" + branch, HttpMethod.PATCH, refBody);
+
+        synchronized (this) {
+            headCommitSha = newCommitSha;
+            headTreeSha = newTreeSha;
+        }
+        return newCommitSha;
+    }
+
+    /**
+     * Current {commitSha, treeSha} of the branch.
+     */
+    private String[] fetchHead() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(githubToken);
+        headers.set("Accept", "application/vnd.github+json");
+
+        Map<?, ?> head = gitHubRestTemplate.exchange(
+                String.format("%s/repos/%s/%s/commits/%s", apiBaseUrl, owner, repo, branch),
+                HttpMethod.GET, new HttpEntity<>(headers), Map.class
+        ).getBody();
+        String commitSha = (String) head.get("sha");
+        String treeSha = (String) ((Map<?, ?>) ((Map<?, ?>) head.get("commit")).get("tree")).get("sha");
+
+        synchronized (this) {
+            headCommitSha = commitSha;
+            headTreeSha = treeSha;
         }
+        return new String[]{commitSha, treeSha};
+    }
+
+    private Map<?, ?> postJson(String operation, HttpMethod method, Map<String, Object> body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(githubToken);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("Accept", "application/vnd.github+json");
 
-        // If successful, GitHub returns JSON describing the commit
-        System.out.println("Successfully created/updated file at " + fullPath
-                + " with commit message: " + commitMessage);
+        ResponseEntity<Map> response = gitHubRestTemplate.exchange(
+                String.format("%s/repos/%s/%s/%s", apiBaseUrl, owner, repo, operation),
+                method, new HttpEntity<>(body, headers), Map.class
+        );
+        if (response.getBody() == null) {
+            throw new RuntimeException("Empty response from GitHub for " + method + " " + operation);
+        }
+        return response.getBody();
     }
 }
@@ -1,158 +1,154 @@
 package com.tracker.demo.service;
 
+import com.tracker.demo.config.TrackerProperties;
+import com.tracker.demo.dto.ActivityWindowStatus;
+import com.tracker.demo.util.ActivityIndex;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Tracks "exercise sessions" in memory, but only when "trackingEnabled" is true.
+ * Tracks exercise activity of the last few days in memory and checks it against
+ * the named windows configured under 'tracker.windows' (e.g. 6:15–7:15 wake-up).
+ *
+ * Sessions go into an ActivityIndex, so "seconds of activity in [a, b)" is an
+ * O(log n) lookup for any window, and reads never block the ingestion threads.
  */
 @Service
 public class InMemoryExerciseTrackerService {
 
-    /**
-     * At 6:15 AM PST, enable in-memory tracking and clear old sessions.
-     * This starts the hour window (6:15 - 7:15).
-     */
-    @Scheduled(cron = "0 15 6 * * ?", zone = "America/Los_Angeles")
-    public void enableTrackingAt6_15AM() {
-        startTrackingWindow();
-    }
+    public static final String WAKE_UP_WINDOW = "wake-up";
 
-    /**
-     * At 7:15 AM PST, check if we had >=30s of load-cell exercise in the last hour,
-     * then disable/clear the in-memory sessions to free up memory.
-     */
-    @Scheduled(cron = "0 15 7 * * ?", zone = "America/Los_Angeles")
-    public void checkAt7_15AM() {
-        boolean hadActivity = hasThirtySecondsInLastHour();
-
-        if (hadActivity) {
-            System.out.println("[7:15 AM Check] Found >= 30s of activity between 6:15–7:15!");
-            // TODO: do something if we found enough activity
-        } else {
-            System.out.println("[7:15 AM Check] Did NOT find >= 30s in the last hour.");
-            // TODO: do something else (e.g., notify user)
-        }
+    // Long enough for any window of up to a day, including ones past midnight
+    private static final int RETENTION_DAYS = 3;
 
-        // Now free up memory and disable tracking
-        stopTrackingWindow();
-    }
+    @Autowired
+    private TrackerProperties trackerProperties;
 
-    /**
-     * A simple record of one exercise session:
-     *   - startTime
-     *   - endTime
-     *   - total duration in seconds
-     */
-    public static class ExerciseRecord {
-        private final LocalDateTime startTime;
-        private final LocalDateTime endTime;
-        private final long durationSeconds;
-
-        public ExerciseRecord(LocalDateTime startTime, LocalDateTime endTime, long durationSeconds) {
-            this.startTime = startTime;
-            this.endTime = endTime;
-            this.durationSeconds = durationSeconds;
-        }
+    private final ActivityIndex activity = new ActivityIndex(RETENTION_DAYS);
 
-        public LocalDateTime getStartTime() {
-            return startTime;
-        }
-        public LocalDateTime getEndTime() {
-            return endTime;
-        }
-        public long getDurationSeconds() {
-            return durationSeconds;
+    // Result of each window's most recent completed occurrence
+    private final Map<String, ActivityWindowStatus> lastResults = new ConcurrentHashMap<>();
+    // End of the occurrence each window was last evaluated for. Only touched by the scheduler.
+    private final Map<String, ZonedDateTime> evaluatedUpTo = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        // Occurrences that ended before startup have no data to judge them on
+        ZonedDateTime now = ZonedDateTime.now();
+        for (TrackerProperties.Window window : trackerProperties.getWindows()) {
+            evaluatedUpTo.put(window.getName(), lastCompleted(window, now)[1]);
         }
     }
 
     /**
-     * Flag to indicate if we should capture sessions in-memory right now.
+     * Called when an exercise stops (from LoadCellService).
      */
-    private boolean trackingEnabled = false;
+    public void addSession(LocalDateTime start, LocalDateTime end) {
+        ZoneId zone = ZoneId.systemDefault();
+        activity.add(start.atZone(zone).toEpochSecond(), end.atZone(zone).toEpochSecond());
+    }
 
     /**
-     * Holds all in-memory sessions (only those that occur while tracking is enabled).
+     * Seconds of exercise in [from, to), across all devices.
      */
-    private final List<ExerciseRecord> sessions = new ArrayList<>();
-
-    public boolean didWakeUpToday;
+    public long getActiveSeconds(ZonedDateTime from, ZonedDateTime to) {
+        return activity.sum(from.toEpochSecond(), to.toEpochSecond());
+    }
 
     /**
-     * Called when an exercise stops (from LoadCellService).
-     * We only add if trackingEnabled == true.
+     * Whether the last completed occurrence of the named window reached its goal.
      */
-    public synchronized void addSession(LocalDateTime start, LocalDateTime end, long duration) {
-        if (trackingEnabled) {
-            sessions.add(new ExerciseRecord(start, end, duration));
-        }
+    public boolean isGoalMet(String windowName) {
+        ActivityWindowStatus result = lastResults.get(windowName);
+        return result != null && result.isGoalMet();
+    }
+
+    public boolean didWakeUpToday() {
+        return isGoalMet(WAKE_UP_WINDOW);
     }
 
     /**
-     * Start the one-hour tracking window (e.g. at 6:15 AM).
+     * Every window's current (or, between occurrences, most recent) occurrence.
      */
-    public synchronized void startTrackingWindow() {
-        // Clear anything old, then enable tracking
-        sessions.clear();
-        trackingEnabled = true;
-        System.out.println("[InMemoryExerciseTrackerService] Tracking window started. (List cleared, tracking enabled)");
+    public List<ActivityWindowStatus> getWindowStatuses() {
+        ZonedDateTime now = ZonedDateTime.now();
+        List<ActivityWindowStatus> statuses = new ArrayList<>();
+        for (TrackerProperties.Window window : trackerProperties.getWindows()) {
+            ZonedDateTime[] occurrence = currentOrLast(window, now);
+            boolean completed = !now.isBefore(occurrence[1]);
+            ZonedDateTime until = completed ? occurrence[1] : now;
+            statuses.add(new ActivityWindowStatus(window.getName(), occurrence[0], occurrence[1],
+                    getActiveSeconds(occurrence[0], until), window.getGoalSeconds(), completed));
+        }
+        return statuses;
     }
 
     /**
-     * Stop tracking (e.g. at 7:15 AM) and clear the data to free memory.
+     * Checks each window once after it closes.
      */
-    public synchronized void stopTrackingWindow() {
-        sessions.clear();
-        trackingEnabled = false;
-        System.out.println("[InMemoryExerciseTrackerService] Tracking window stopped. (List cleared, tracking disabled)");
+    @Scheduled(fixedDelayString = "${tracker.check-interval-ms:10000}")
+    public void evaluateWindows() {
+        ZonedDateTime now = ZonedDateTime.now();
+        for (TrackerProperties.Window window : trackerProperties.getWindows()) {
+            ZonedDateTime[] occurrence = lastCompleted(window, now);
+            ZonedDateTime previous = evaluatedUpTo.get(window.getName());
+            if (previous != null && !occurrence[1].isAfter(previous)) {
+                continue;
+            }
+            evaluatedUpTo.put(window.getName(), occurrence[1]);
+
+            ActivityWindowStatus result = new ActivityWindowStatus(window.getName(), occurrence[0], occurrence[1],
+                    getActiveSeconds(occurrence[0], occurrence[1]), window.getGoalSeconds(), true);
+            lastResults.put(window.getName(), result);
+
+            if (result.isGoalMet()) {
+                System.out.println("[" + window.getName() + " Check] Found " + result.getActiveSeconds()
+                        + "s of activity between " + window.getStart() + "–" + window.getEnd() + "!");
+            } else {
+                System.out.println("[" + window.getName() + " Check] Did NOT find >= " + window.getGoalSeconds()
+                        + "s between " + window.getStart() + "–" + window.getEnd() + " (" + result.getActiveSeconds() + "s).");
+            }
+        }
     }
 
     /**
-     * Returns whether we are currently capturing sessions.
+     * [start, end) of the occurrence that started most recently at or before {@code now}.
      */
-    public synchronized boolean isTrackingEnabled() {
-        return trackingEnabled;
+    private static ZonedDateTime[] currentOrLast(TrackerProperties.Window window, ZonedDateTime now) {
+        ZoneId zone = ZoneId.of(window.getZone());
+        LocalTime startTime = LocalTime.parse(window.getStart());
+        LocalTime endTime = LocalTime.parse(window.getEnd());
+        LocalDate day = now.withZoneSameInstant(zone).toLocalDate();
+
+        ZonedDateTime start = day.atTime(startTime).atZone(zone);
+        if (now.isBefore(start)) {
+            day = day.minusDays(1);
+            start = day.atTime(startTime).atZone(zone);
+        }
+        LocalDate endDay = endTime.isAfter(startTime) ? day : day.plusDays(1);
+        return new ZonedDateTime[]{start, endDay.atTime(endTime).atZone(zone)};
     }
 
     /**
-     * Check if there's at least 30s of "exercise" in the last hour of sessions stored.
-     *
-     * Because we only track from 6:15–7:15, you could do a direct sum. But to be robust,
-     * this method calculates overlap with "LocalDateTime.now() minus 1 hour."
+     * [start, end) of the most recent occurrence that has already ended.
      */
-    public synchronized boolean hasThirtySecondsInLastHour() {
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime oneHourAgo = now.minusHours(1);
-
-        long totalSeconds = 0;
-
-        for (ExerciseRecord record : sessions) {
-            // If the session ends after oneHourAgo AND starts before now,
-            // there's some overlap with the last hour.
-            if (record.getEndTime().isAfter(oneHourAgo) && record.getStartTime().isBefore(now)) {
-                // Overlap start = the later of (session.start, oneHourAgo)
-                LocalDateTime overlapStart = record.getStartTime().isBefore(oneHourAgo)
-                        ? oneHourAgo : record.getStartTime();
-                // Overlap end = the earlier of (session.end, now)
-                LocalDateTime overlapEnd = record.getEndTime().isAfter(now)
-                        ? now : record.getEndTime();
-
-                long overlapSecs = ChronoUnit.SECONDS.between(overlapStart, overlapEnd);
-                if (overlapSecs > 0) {
-                    totalSeconds += overlapSecs;
-                    if (totalSeconds >= 30) {
-                        didWakeUpToday = true;
-                        return true;
-                    }
-                }
-            }
+    private static ZonedDateTime[] lastCompleted(TrackerProperties.Window window, ZonedDateTime now) {
+        ZonedDateTime[] occurrence = currentOrLast(window, now);
+        if (now.isBefore(occurrence[1])) {
+            occurrence = currentOrLast(window, occurrence[0].minusSeconds(1));
         }
-        didWakeUpToday = false;
-        return false;
+        return occurrence;
     }
 }
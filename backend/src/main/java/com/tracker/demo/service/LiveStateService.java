@@ -0,0 +1,117 @@
+package com.tracker.demo.service;
+
+import com.tracker.demo.dto.LiveLoadCellState;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Pushes each device's LiveLoadCellState to Server-Sent Events subscribers.
+ *
+ * A scheduled tick builds one snapshot per device that has subscribers, from memory
+ * only, and sends it just when it differs from the last one sent. Any number of open
+ * dashboards therefore costs one snapshot per device and tick, and no DB queries.
+ *
+ * The blocking sends run on a small pool of their own, not on the shared scheduler
+ * thread, so a slow client can't hold up the journal flush or other scheduled work.
+ * While a device's previous sends are still running its tick is skipped; the next
+ * tick sends whatever is newest by then.
+ */
+@Service
+public class LiveStateService {
+
+    @Autowired
+    private LoadCellService loadCellService;
+
+    private final Map<Integer, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final Map<Integer, LiveLoadCellState> lastSent = new ConcurrentHashMap<>();
+    // Devices whose sends of an earlier tick haven't finished yet
+    private final Set<Integer> sending = ConcurrentHashMap.newKeySet();
+
+    @Value("${loadcell.live.send-threads:2}")
+    private int sendThreads;
+
+    private ExecutorService sender;
+
+    @PostConstruct
+    public void start() {
+        sender = Executors.newFixedThreadPool(Math.max(1, sendThreads), runnable -> {
+            Thread thread = new Thread(runnable, "live-state-sse");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        sender.shutdownNow();
+    }
+
+    /**
+     * Opens a stream for the device; the current state is sent right away.
+     */
+    public SseEmitter subscribe(int deviceId) {
+        SseEmitter emitter = new SseEmitter(0L); // no timeout, the client decides when to leave
+        List<SseEmitter> emitters = subscribers.computeIfAbsent(deviceId, id -> new CopyOnWriteArrayList<>());
+        emitters.add(emitter);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(e -> emitters.remove(emitter));
+
+        try {
+            emitter.send(SseEmitter.event().name("state").data(loadCellService.getLiveState(deviceId)));
+        } catch (IOException e) {
+            emitters.remove(emitter);
+        }
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${loadcell.live.interval-ms:500}")
+    public void pushChanges() {
+        subscribers.forEach((deviceId, emitters) -> {
+            if (emitters.isEmpty()) {
+                lastSent.remove(deviceId);
+                return;
+            }
+            if (!sending.add(deviceId)) {
+                return;
+            }
+            LiveLoadCellState state = loadCellService.getLiveState(deviceId);
+            if (state.equals(lastSent.put(deviceId, state))) {
+                sending.remove(deviceId);
+                return;
+            }
+            sender.execute(() -> {
+                try {
+                    send(emitters, state);
+                } finally {
+                    sending.remove(deviceId);
+                }
+            });
+        });
+    }
+
+    private static void send(List<SseEmitter> emitters, LiveLoadCellState state) {
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(SseEmitter.event().name("state").data(state));
+            } catch (IOException | IllegalStateException e) {
+                // Tab closed; drop it here, the container may never call back
+                emitters.remove(emitter);
+            }
+        }
+    }
+}
@@ -1,15 +1,30 @@
 package com.tracker.demo.service;
 
+import com.tracker.demo.config.DetectorProperties;
+import com.tracker.demo.dto.LiveLoadCellState;
 import com.tracker.demo.dto.LoadCellExerciseResult;
+import com.tracker.demo.dto.ReplayReport;
+import com.tracker.demo.service.detector.DetectorReplayHarness;
+import com.tracker.demo.service.detector.ExerciseDetector;
+import com.tracker.demo.service.detector.ExerciseDetectorFactory;
+import com.tracker.demo.sql.entity.LoadCellExercise;
 import com.tracker.demo.sql.entity.LoadCellSession;
+import com.tracker.demo.sql.repository.LoadCellExerciseRepository;
 import com.tracker.demo.sql.repository.LoadCellSessionRepository;
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 @Service
 public class LoadCellService {
@@ -19,139 +34,186 @@ public class LoadCellService {
     @Autowired
     private InMemoryExerciseTrackerService inMemoryTracker; // <<--- new
 
-    private LocalDateTime exerciseStartTime;
-    private boolean isExerciseActive = false;
+    @Autowired
+    private DailyExerciseAccumulator dailyExerciseAccumulator;
 
-    // Threshold to detect exercise in kg (negative means heavier).
-    private static final float EXERCISE_THRESHOLD_RELATIVE = 8.0f;
-    private static final long DEFAULT_GOAL_SECONDS = 300; // 5-minute daily goal
-    private static final int START_REQUIRED_CONSECUTIVE = 1;
-    private static final int STOP_REQUIRED_CONSECUTIVE  = 1;
+    @Autowired
+    private LoadCellExerciseRepository loadCellExerciseRepository;
 
-    // Rolling baseline
-    private static final int BASELINE_WINDOW_SIZE = 100;
-    private Deque<Double> baselineReadings = new ArrayDeque<>();
-    private double baselineWeight = 0.0;
+    @Autowired
+    private ExerciseDetectorFactory exerciseDetectorFactory;
+
+    @Autowired
+    private DetectorProperties detectorProperties;
 
-    private int consecutiveAboveThresholdCount = 0;
-    private int consecutiveBelowThresholdCount = 0;
+    @Autowired
+    private RawSampleStore rawSampleStore;
+
+    static final long DEFAULT_GOAL_SECONDS = 300; // 5-minute daily goal
+
+    // Independent detector per device. Each device is only ever processed by its own
+    // ingestion shard, so the map is the only shared structure and devices never contend.
+    private final Map<Integer, DeviceState> devices = new ConcurrentHashMap<>();
+    // Held in a field so the per-reading lookup doesn't allocate a capturing lambda
+    private final Function<Integer, DeviceState> newDevice = id -> new DeviceState(exerciseDetectorFactory.create());
+
+    private static final class DeviceState {
+        private final ExerciseDetector detector;
+        // Written by the device's shard thread, read by live-state requests
+        private volatile boolean exerciseActive;
+        private volatile long exerciseStartMillis;   // device timestamp of the reading that started the session
+        private volatile long lastReadingMillis;
+        private volatile double baselineWeight;
+
+        private DeviceState(ExerciseDetector detector) {
+            this.detector = detector;
+        }
+    }
 
     /**
-     * Called for each new reading from the load cell.
-     * If we detect the start/stop of an "exercise," we store that interval in DB
-     * (for daily totals) AND (optionally) in the inMemoryTracker if tracking is enabled.
+     * Called for each new reading from a load cell.
+     * If we detect the start/stop of an "exercise," we hand that interval to the
+     * write-behind accumulator (for the device's daily total in DB) AND to the
+     * inMemoryTracker for the activity-window checks. No DB call happens here.
+     *
+     * @param timestamp when the device took the reading, epoch millis; readings arrive in sequence order
      */
-    public void processWeightData(double weight) {
-
-        // 1) If NOT currently exercising, feed into baseline window
-        if (!isExerciseActive) {
-            baselineReadings.addLast(weight);
-            if (baselineReadings.size() > BASELINE_WINDOW_SIZE) {
-                baselineReadings.removeFirst();
-            }
-            baselineWeight = baselineReadings.stream()
-                    .mapToDouble(Double::doubleValue)
-                    .average()
-                    .orElse(0.0);
-        }
+    public void processWeightData(int deviceId, long timestamp, double weight) {
+        DeviceState device = devices.computeIfAbsent(deviceId, newDevice);
 
-        // 2) Compare to adjusted threshold
-        double adjustedThreshold = baselineWeight - EXERCISE_THRESHOLD_RELATIVE;
-        if (weight <= adjustedThreshold) {
-            consecutiveAboveThresholdCount++;
-            consecutiveBelowThresholdCount = 0;
-        } else {
-            consecutiveBelowThresholdCount++;
-            consecutiveAboveThresholdCount = 0;
-        }
+        ExerciseDetector.Transition transition = device.detector.onReading(weight);
+        device.lastReadingMillis = timestamp;
+        device.baselineWeight = device.detector.getBaselineWeight();
 
-        // 3) Check if exercise should start
-        if (!isExerciseActive && consecutiveAboveThresholdCount >= START_REQUIRED_CONSECUTIVE) {
-            exerciseStartTime = LocalDateTime.now();
-            isExerciseActive = true;
-            System.out.println("Exercise started at: " + exerciseStartTime);
+        if (transition == ExerciseDetector.Transition.STARTED) {
+            device.exerciseStartMillis = timestamp;
+            device.exerciseActive = true;
+            System.out.println("[Device " + deviceId + "] Exercise started at: " + toLocalDateTime(timestamp));
         }
 
-        // 4) Check if exercise should stop
-        if (isExerciseActive && consecutiveBelowThresholdCount >= STOP_REQUIRED_CONSECUTIVE) {
-            LocalDateTime exerciseEndTime = LocalDateTime.now();
+        if (transition == ExerciseDetector.Transition.STOPPED) {
+            // Timed by the device's clock, so queueing or late batches don't stretch the session
+            LocalDateTime exerciseStartTime = toLocalDateTime(device.exerciseStartMillis);
+            LocalDateTime exerciseEndTime = toLocalDateTime(Math.max(timestamp, device.exerciseStartMillis));
+            device.exerciseActive = false;
             long newSessionSeconds =
                     ChronoUnit.SECONDS.between(exerciseStartTime, exerciseEndTime);
 
-            isExerciseActive = false;
-
-            // ========== NEW: Add to inMemoryTracker if tracking is enabled =============
-            inMemoryTracker.addSession(exerciseStartTime, exerciseEndTime, newSessionSeconds);
-
-            // ========== OPTIONAL: DB logic for daily total (unchanged) =================
-            LocalDate today = LocalDate.now();
-            LoadCellSession session = loadCellSessionRepository.findByDate(today);
-            if (session == null) {
-                session = new LoadCellSession();
-                session.setDate(today);
-                session.setGoal(DEFAULT_GOAL_SECONDS);
-            }
-
-            long updatedDuration = session.getDurationSeconds() + newSessionSeconds;
-            session.setDurationSeconds(updatedDuration);
-            if (session.getGoal() > 0) {
-                float percentage = (float) updatedDuration / session.getGoal() * 100f;
-                session.setPercentage(percentage);
-            } else {
-                session.setPercentage(0f);
-            }
-            loadCellSessionRepository.save(session);
-
-            System.out.println("Exercise ended. This session: " + newSessionSeconds
-                    + " seconds; total so far today: " + updatedDuration + " seconds");
-        }
+            // ========== Activity windows (e.g. wake-up check) =========================
+            inMemoryTracker.addSession(exerciseStartTime, exerciseEndTime);
+
+            // ========== Daily total: journaled now, flushed to DB in the background ====
+            dailyExerciseAccumulator.record(deviceId, exerciseStartTime, exerciseEndTime, newSessionSeconds);
 
-        // Debug
-        System.out.println("baselineWeight: " + baselineWeight);
+            System.out.println("[Device " + deviceId + "] Exercise ended. This session: " + newSessionSeconds + " seconds");
+        }
     }
 
     /**
      * Reset baseline if needed
      */
-    public void resetBaseline() {
-        baselineReadings.clear();
-        baselineWeight = 0.0;
+    public void resetBaseline(int deviceId) {
+        DeviceState device = devices.get(deviceId);
+        if (device != null) {
+            device.detector.resetBaseline();
+        }
     }
 
-    public LoadCellExerciseResult getTotalExerciseTimeToday() {
-        LocalDate today = LocalDate.now();
-        LoadCellSession sessions = loadCellSessionRepository.findByDate(today);
-        if (sessions == null) {
-            return new LoadCellExerciseResult(0f, DEFAULT_GOAL_SECONDS, 0L);
+    /**
+     * Replays the device's stored raw readings in [from, to) through a fresh detector,
+     * e.g. to compare detector types and parameters against recorded data.
+     *
+     * @param detectorType overrides loadcell.detector.type, or null for the configured one
+     */
+    public ReplayReport replay(int deviceId, long from, long to, String detectorType) throws IOException {
+        DetectorProperties properties = new DetectorProperties();
+        BeanUtils.copyProperties(detectorProperties, properties);
+        if (detectorType != null) {
+            properties.setType(detectorType);
         }
-        return new LoadCellExerciseResult(
-                sessions.getPercentage(),
-                sessions.getGoal(),
-                sessions.getDurationSeconds());
+        return DetectorReplayHarness.replay(ExerciseDetectorFactory.create(properties), properties.getType(),
+                visitor -> rawSampleStore.scan(deviceId, from, to, visitor));
     }
 
-    public LoadCellExerciseResult getTotalExerciseTimeForDay(String dateStr) {
-        LocalDate date = LocalDate.parse(dateStr);
-        LoadCellSession sessions = loadCellSessionRepository.findByDate(date);
-        if (sessions == null) {
-            return new LoadCellExerciseResult(0f, DEFAULT_GOAL_SECONDS, 0L);
-        }
-        return new LoadCellExerciseResult(
-                sessions.getPercentage(),
-                sessions.getGoal(),
-                sessions.getDurationSeconds());
+    public LoadCellExerciseResult getTotalExerciseTimeToday(int deviceId) {
+        // Served from memory; only the first call of the day reads the DB
+        DailyExerciseAccumulator.DayTotal total = dailyExerciseAccumulator.getDayTotal(deviceId, LocalDate.now());
+        float percentage = total.goal() > 0 ? (float) total.seconds() / total.goal() * 100f : 0f;
+        return new LoadCellExerciseResult(percentage, total.goal(), total.seconds());
     }
 
-    public Map<LocalDate, LoadCellExerciseResult> getTotalExerciseTimeInRange(LocalDate startDate, LocalDate endDate) {
+    /**
+     * Detector state and today's progress for the device, from memory.
+     * Today's total includes the session in progress.
+     */
+    public LiveLoadCellState getLiveState(int deviceId) {
+        DeviceState device = devices.get(deviceId);
+        boolean active = device != null && device.exerciseActive;
+        long elapsedSeconds = active ? Math.max(0, device.lastReadingMillis - device.exerciseStartMillis) / 1000 : 0;
+
+        DailyExerciseAccumulator.DayTotal total = dailyExerciseAccumulator.getDayTotal(deviceId, LocalDate.now());
+        long todaySeconds = total.seconds() + elapsedSeconds;
+        double percentage = total.goal() > 0 ? (double) todaySeconds / total.goal() * 100 : 0;
+
+        return new LiveLoadCellState(deviceId,
+                device != null ? Math.round(device.baselineWeight * 10) / 10.0 : 0,
+                active, elapsedSeconds, todaySeconds, total.goal(),
+                Math.round(percentage * 10) / 10.0);
+    }
+
+    public LoadCellExerciseResult getTotalExerciseTimeForDay(int deviceId, String dateStr) {
+        return getTotalExerciseTimeForDay(deviceId, LocalDate.parse(dateStr));
+    }
+
+    private LoadCellExerciseResult getTotalExerciseTimeForDay(int deviceId, LocalDate date) {
+        LoadCellSession session = loadCellSessionRepository.findByDeviceIdAndDate(deviceId, date);
+        return toResult(session, dailyExerciseAccumulator.getUnflushedSeconds(deviceId, date));
+    }
+
+    public Map<LocalDate, LoadCellExerciseResult> getTotalExerciseTimeInRange(int deviceId, LocalDate startDate, LocalDate endDate) {
         Map<LocalDate, LoadCellExerciseResult> resultMap = new HashMap<>();
-        List<LoadCellSession> sessions = loadCellSessionRepository.findByDateBetween(startDate, endDate);
+        List<LoadCellSession> sessions =
+                loadCellSessionRepository.findByDeviceIdAndDateBetween(deviceId, startDate, endDate);
+        Map<LocalDate, Long> unflushed = dailyExerciseAccumulator.getUnflushedSeconds(deviceId, startDate, endDate);
 
         for (LoadCellSession session : sessions) {
             resultMap.put(session.getDate(),
-                    new LoadCellExerciseResult(session.getPercentage(),
-                            session.getGoal(),
-                            session.getDurationSeconds()));
+                    toResult(session, unflushed.getOrDefault(session.getDate(), 0L)));
         }
+        // Days whose only sessions are still waiting for the next flush
+        unflushed.forEach((date, seconds) -> resultMap.putIfAbsent(date, toResult(null, seconds)));
         return resultMap;
     }
+
+    /**
+     * Stored sessions that started in [start, end), one page at a time.
+     * Sessions still waiting for the next flush are not included yet.
+     */
+    public List<LoadCellExercise> getSessions(int deviceId, LocalDateTime start, LocalDateTime end, int page, int size) {
+        return loadCellExerciseRepository.findSessions(deviceId, start, end, PageRequest.of(page, size));
+    }
+
+    /**
+     * Session count and total seconds per day or per hour, aggregated by the database.
+     */
+    public List<LoadCellExerciseRepository.Bucket> getSessionSummary(int deviceId, LocalDateTime start, LocalDateTime end,
+                                                                     String per) {
+        return switch (per.toLowerCase()) {
+            case "day" -> loadCellExerciseRepository.sumPerDay(deviceId, start, end);
+            case "hour" -> loadCellExerciseRepository.sumPerHour(deviceId, start, end);
+            default -> throw new IllegalArgumentException("Unknown bucket: " + per + " (expected day or hour)");
+        };
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    // Combines the stored daily row (may be null) with seconds not yet flushed to DB
+    private LoadCellExerciseResult toResult(LoadCellSession session, long unflushedSeconds) {
+        long goal = session != null ? session.getGoal() : DEFAULT_GOAL_SECONDS;
+        long seconds = (session != null ? session.getDurationSeconds() : 0L) + unflushedSeconds;
+        float percentage = goal > 0 ? (float) seconds / goal * 100f : 0f;
+        return new LoadCellExerciseResult(percentage, goal, seconds);
+    }
 }
@@ -0,0 +1,194 @@
+package com.tracker.demo.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Notes read from a local clone of the notes repository instead of one REST call per file.
+ *
+ * Enabled with {@code github.mirror.enabled=true}; it then replaces GitHubService as
+ * the NoteContentSource. The clone of github.repo.owner/name (or github.mirror.url,
+ * e.g. a local bare repository) is reset to the fetched github.repo.branch every
+ * github.mirror.fetch-interval-ms, and notes are read straight from its working tree,
+ * so a year of notes aggregates at disk speed. Writes still go through GitHubService
+ * and show up here with the next fetch.
+ *
+ * Uses the git command line, which must be on the PATH.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "github.mirror.enabled", havingValue = "true")
+public class LocalGitMirror implements NoteContentSource {
+
+    private static final long GIT_TIMEOUT_SECONDS = 120;
+
+    private final String url;
+    private final String branch;
+    private final Path workTree;
+    private final String token;
+
+    // Reads share the working tree; a sync rewrites it exclusively
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Runs syncs asked for by push webhooks, so the webhook is answered right away
+    private final ExecutorService syncer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "notes-mirror-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean syncQueued = new AtomicBoolean();
+
+    public LocalGitMirror(@Value("${github.mirror.url:}") String url,
+                          @Value("${github.repo.owner}") String owner,
+                          @Value("${github.repo.name}") String name,
+                          @Value("${github.repo.branch:main}") String branch,
+                          @Value("${github.mirror.path:./notes-mirror}") String path,
+                          @Value("${github.token:}") String token) {
+        this.url = url.isBlank() ? String.format("https://github.com/%s/%s.git", owner, name) : url;
+        this.branch = branch;
+        this.workTree = Path.of(path).toAbsolutePath().normalize();
+        this.token = token;
+    }
+
+    @PostConstruct
+    public void init() {
+        sync();
+    }
+
+    @PreDestroy
+    public void close() {
+        syncer.shutdownNow();
+    }
+
+    /**
+     * Clones the repository on first use, afterwards fetches the branch and resets the
+     * clone to it. The clone is never written to locally, so a reset only loses what
+     * upstream dropped itself, and a force-pushed or rebased branch is followed too.
+     *
+     * @return false if git failed; the mirror keeps serving what it has
+     */
+    @Scheduled(fixedDelayString = "${github.mirror.fetch-interval-ms:60000}",
+            initialDelayString = "${github.mirror.fetch-interval-ms:60000}")
+    public synchronized boolean sync() {
+        try {
+            if (!Files.isDirectory(workTree.resolve(".git"))) {
+                Files.createDirectories(workTree.getParent());
+                git(workTree.getParent(), "clone", "--branch", branch, "--single-branch", url, workTree.toString());
+                System.out.println("[LocalGitMirror] Cloned " + url + " (" + branch + ") into " + workTree);
+                return true;
+            }
+
+            git(workTree, "fetch", "origin", branch);
+            lock.writeLock().lock();
+            try {
+                git(workTree, "reset", "--hard", "FETCH_HEAD");
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return true;
+        } catch (IOException e) {
+            System.err.println("[LocalGitMirror] Sync failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * The clone is one fetch behind the push; catch up now instead of at the next interval.
+     * Returns at once, the fetch runs in the background.
+     */
+    @Override
+    public void invalidate(Collection<String> paths) {
+        requestSync();
+    }
+
+    @Override
+    public void invalidateAll() {
+        requestSync();
+    }
+
+    private void requestSync() {
+        // Pushes arriving while one is queued are covered by that sync; one arriving
+        // while it runs queues the next, since the running fetch may have missed it
+        if (syncQueued.compareAndSet(false, true)) {
+            syncer.execute(() -> {
+                syncQueued.set(false);
+                sync();
+            });
+        }
+    }
+
+    @Override
+    public String getContent(String path) {
+        Path file = workTree.resolve(path).normalize();
+        if (!file.startsWith(workTree) || file.startsWith(workTree.resolve(".git"))) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            return Files.isRegularFile(file) ? Files.readString(file, StandardCharsets.UTF_8) : null;
+        } catch (IOException e) {
+            System.err.println("[LocalGitMirror] Failed to read " + path + ": " + e.getMessage());
+            return null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private String git(Path directory, String... args) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(List.of(args));
+
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .directory(directory.toFile())
+                .redirectErrorStream(true);
+        builder.environment().put("GIT_TERMINAL_PROMPT", "0");
+        if (token != null && !token.isBlank() && url.startsWith("https://")) {
+            // Passed as config through the environment so the token is neither on the
+            // command line nor written to .git/config
+            String basic = Base64.getEncoder()
+                    .encodeToString(("x-access-token:" + token).getBytes(StandardCharsets.UTF_8));
+            builder.environment().put("GIT_CONFIG_COUNT", "1");
+            builder.environment().put("GIT_CONFIG_KEY_0", "http.extraHeader");
+            builder.environment().put("GIT_CONFIG_VALUE_0", "Authorization: Basic " + basic);
+        }
+
+        Process process = builder.start();
+        try {
+            byte[] output = process.getInputStream().readAllBytes();
+            if (!process.waitFor(GIT_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                throw new IOException("git " + args[0] + " timed out");
+            }
+            String text = new String(output, StandardCharsets.UTF_8);
+            if (process.exitValue() != 0) {
+                throw new IOException("git " + args[0] + " exited with " + process.exitValue() + ": " + text.trim());
+            }
+            return text;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            process.destroyForcibly();
+            throw new IOException("Interrupted while running git " + args[0], e);
+        }
+    }
+}
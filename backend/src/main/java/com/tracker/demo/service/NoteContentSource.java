@@ -0,0 +1,40 @@
+package com.tracker.demo.service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Where DailyTaskService reads the markdown notes from: the GitHub REST API
+ * ({@link GitHubService}) or a local clone ({@link LocalGitMirror}).
+ */
+public interface NoteContentSource {
+
+    /**
+     * Content of the note at {@code path} on the configured branch, or null if there is none.
+     */
+    String getContent(String path);
+
+    /**
+     * Contents of several notes at once, path -> content; paths without a note map to
+     * null or are left out. Sources that can fetch in bulk override this.
+     */
+    default Map<String, String> getContents(Collection<String> paths) {
+        Map<String, String> contents = new HashMap<>();
+        for (String path : paths) {
+            contents.put(path, getContent(path));
+        }
+        return contents;
+    }
+
+    /**
+     * Called when a push added, modified or removed these paths on the branch.
+     */
+    void invalidate(Collection<String> paths);
+
+    /**
+     * Called when a push may have changed any path, e.g. a force-push or one whose
+     * commit list GitHub truncated.
+     */
+    void invalidateAll();
+}
@@ -0,0 +1,129 @@
+package com.tracker.demo.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Handles GitHub push webhooks of the notes repository.
+ *
+ * Each push names the files its commits added, modified or removed; exactly those
+ * paths are dropped from the note caches, which can then keep everything else
+ * indefinitely (see github.webhook.enabled). A push that rewrote, created or deleted
+ * the branch, or whose commit list GitHub cut short, may have changed any path and
+ * invalidates everything.
+ */
+@Service
+public class NoteWebhookService {
+
+    private static final String SIGNATURE_PREFIX = "sha256=";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    // GitHub lists at most this many commits in a push event; a longer push is truncated
+    private static final int MAX_LISTED_COMMITS = 20;
+
+    // handlePush result when every path was invalidated
+    public static final int ALL_PATHS = -1;
+
+    private final GitHubService gitHubService;
+    private final NoteContentSource noteContentSource;
+    private final DailyTaskService dailyTaskService;
+    private final byte[] secret;
+    private final String repository;
+    private final String ref;
+
+    public NoteWebhookService(GitHubService gitHubService,
+                              NoteContentSource noteContentSource,
+                              DailyTaskService dailyTaskService,
+                              @Value("${github.webhook.secret:}") String secret,
+                              @Value("${github.repo.owner}") String owner,
+                              @Value("${github.repo.name}") String name,
+                              @Value("${github.repo.branch:main}") String branch) {
+        this.gitHubService = gitHubService;
+        this.noteContentSource = noteContentSource;
+        this.dailyTaskService = dailyTaskService;
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        this.repository = owner + "/" + name;
+        this.ref = "refs/heads/" + branch;
+    }
+
+    /**
+     * Checks the X-Hub-Signature-256 header against the raw request body.
+     * Always false while no secret is configured.
+     */
+    public boolean verifySignature(byte[] body, String signatureHeader) {
+        if (secret.length == 0 || signatureHeader == null || !signatureHeader.startsWith(SIGNATURE_PREFIX)) {
+            return false;
+        }
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret, "HmacSHA256"));
+            byte[] expected = mac.doFinal(body);
+            byte[] actual = HexFormat.of().parseHex(signatureHeader.substring(SIGNATURE_PREFIX.length()));
+            return MessageDigest.isEqual(expected, actual); // constant time
+        } catch (IllegalArgumentException e) {
+            return false; // not hex
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 unavailable", e);
+        }
+    }
+
+    /**
+     * Invalidates the paths touched by a push event.
+     *
+     * @return number of paths invalidated, {@link #ALL_PATHS} if all were; 0 for pushes
+     *         to other repositories or branches
+     */
+    public int handlePush(byte[] body) throws IOException {
+        JsonNode event = MAPPER.readTree(body);
+        if (!repository.equalsIgnoreCase(event.path("repository").path("full_name").asText())
+                || !ref.equals(event.path("ref").asText())) {
+            return 0;
+        }
+
+        JsonNode commits = event.path("commits");
+        if (event.path("forced").asBoolean() || event.path("created").asBoolean()
+                || event.path("deleted").asBoolean() || commits.size() >= MAX_LISTED_COMMITS) {
+            gitHubService.invalidateAll();
+            if (noteContentSource != gitHubService) {
+                noteContentSource.invalidateAll();
+            }
+            dailyTaskService.invalidateAll();
+            System.out.println("[NoteWebhookService] Push " + event.path("after").asText()
+                    + " (forced=" + event.path("forced").asBoolean() + ", " + commits.size()
+                    + " commit(s)) invalidated all paths");
+            return ALL_PATHS;
+        }
+
+        Set<String> paths = new LinkedHashSet<>();
+        for (JsonNode commit : commits) {
+            for (String list : new String[]{"added", "modified", "removed"}) {
+                for (JsonNode path : commit.path(list)) {
+                    paths.add(path.asText());
+                }
+            }
+        }
+        if (paths.isEmpty()) {
+            return 0;
+        }
+
+        gitHubService.invalidate(paths);
+        if (noteContentSource != gitHubService) {
+            noteContentSource.invalidate(paths);
+        }
+        dailyTaskService.invalidate(paths);
+        System.out.println("[NoteWebhookService] Push " + event.path("after").asText()
+                + " invalidated " + paths.size() + " path(s)");
+        return paths.size();
+    }
+}
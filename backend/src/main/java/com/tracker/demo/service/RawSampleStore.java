@@ -0,0 +1,475 @@
+package com.tracker.demo.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Append-only store for every raw load-cell reading, one memory-mapped segment file
+ * per device per day: {@code <path>/device-<id>/<yyyy-MM-dd>.seg}.
+ *
+ * Segment layout (little-endian):
+ * <pre>
+ *   header (16 KiB)
+ *     0      int32   magic "LCS1"
+ *     4      int32   version
+ *     8      int64   record count
+ *     16     int64[1440] minute index: 1 + number of the first record of that minute of the day, 0 = none
+ *     11536  int32   1 once a record arrived with an older timestamp than the one before it
+ *   records, 24 bytes each
+ *     0      int64   timestamp (epoch millis)
+ *     8      int64   rawValue
+ *     16     float64 weight
+ * </pre>
+ *
+ * The file grows in fixed-size mapped regions, so an append is a few memory writes.
+ * The record count is written after the record, so a crashed process leaves a valid prefix.
+ * Appends for a device come only from its ingestion shard's thread (single writer).
+ *
+ * Timestamps come from the device, so a reading may belong to an earlier day than the
+ * one being written (a late retry) or arrive out of order. Each reading goes into the
+ * segment of its own day; the two most recent days of a device stay open, older ones
+ * are opened just for the append. Within a segment, records are normally in timestamp
+ * order and scans use the minute index and stop at the end of the range; a segment that
+ * got an out-of-order record is flagged and scanned in full instead.
+ *
+ * Segments are reference counted, so a scan keeps the file open even if the writer
+ * moves on to the next day while it reads.
+ */
+@Service
+public class RawSampleStore {
+
+    /**
+     * Receives readings from {@link #scan}. Return false to stop scanning.
+     */
+    public interface SampleVisitor {
+        boolean visit(long timestamp, long rawValue, double weight);
+    }
+
+    private static final int MAGIC = 0x3153434C; // "LCS1" read little-endian
+    private static final int VERSION = 1;
+    private static final int MINUTES_PER_DAY = 1440;
+    private static final int HEADER_SIZE = 16 * 1024;
+    private static final int COUNT_OFFSET = 8;
+    private static final int INDEX_OFFSET = 16;
+    private static final int UNSORTED_OFFSET = INDEX_OFFSET + MINUTES_PER_DAY * Long.BYTES;
+    // Days per device whose segments stay open for appends
+    private static final int OPEN_DAYS = 2;
+
+    private static final int RECORD_SIZE = 24;
+    private static final int RECORDS_PER_REGION_SHIFT = 19; // 512Ki records = 12 MiB per region
+    private static final int RECORDS_PER_REGION = 1 << RECORDS_PER_REGION_SHIFT;
+    private static final long REGION_SIZE = (long) RECORDS_PER_REGION * RECORD_SIZE;
+
+    @Value("${loadcell.store.enabled:true}")
+    private boolean enabled;
+
+    @Value("${loadcell.store.path:./sensor-data}")
+    private String storePath;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    // Segments open for appends, per device
+    private final Map<Integer, DeviceSegments> writers = new ConcurrentHashMap<>();
+
+    /**
+     * Appends one reading to the device's segment for the reading's day.
+     * Never throws: a failing disk must not stop exercise detection.
+     */
+    public void append(int deviceId, long timestamp, long rawValue, double weight) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            DeviceSegments device = writers.computeIfAbsent(deviceId, id -> new DeviceSegments());
+            Segment latest = device.latest;
+            if (latest != null && latest.covers(timestamp)) {
+                latest.append(timestamp, rawValue, weight); // the common case
+                return;
+            }
+
+            LocalDate day = toDate(timestamp);
+            Segment segment = device.find(day);
+            if (segment != null) {
+                segment.append(timestamp, rawValue, weight);
+            } else if (latest == null || day.isAfter(latest.day)) {
+                rollSegment(deviceId, device, day).append(timestamp, rawValue, weight);
+            } else if (day.isAfter(latest.day.minusDays(OPEN_DAYS))) {
+                // A late reading for a recent day; keep its segment open for the ones that follow
+                segment = Segment.open(segmentFile(deviceId, day), day, zone, true);
+                device.open.add(segment);
+                segment.append(timestamp, rawValue, weight);
+            } else {
+                // Older than every open day: open it just for this reading
+                Segment old = Segment.open(segmentFile(deviceId, day), day, zone, true);
+                try {
+                    old.append(timestamp, rawValue, weight);
+                    old.force();
+                } finally {
+                    old.release();
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("[RawSampleStore] Failed to append reading for device " + deviceId + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Visits the device's readings with {@code from <= timestamp < to} (epoch millis), oldest day first.
+     * The minute index is used to jump to the first relevant record of each day.
+     */
+    public void scan(int deviceId, long from, long to, SampleVisitor visitor) throws IOException {
+        LocalDate day = toDate(from);
+        LocalDate lastDay = toDate(to - 1);
+
+        while (!day.isAfter(lastDay)) {
+            DeviceSegments device = writers.get(deviceId);
+            Segment segment = device != null ? device.find(day) : null;
+            if (segment == null || !segment.retain()) {
+                // Not open for writing (or just closed): mapped read-only just for this scan
+                Path file = segmentFile(deviceId, day);
+                segment = Files.exists(file) ? Segment.open(file, day, zone, false) : null;
+            }
+            if (segment != null) {
+                try {
+                    if (!segment.scan(from, to, visitor)) {
+                        return;
+                    }
+                } finally {
+                    segment.release();
+                }
+            }
+            day = day.plusDays(1);
+        }
+    }
+
+    /**
+     * Visits every record of one segment file in file order, without needing the store
+     * (used by the offline replay harness).
+     */
+    public static void readSegmentFile(Path file, SampleVisitor visitor) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not a load-cell segment: " + file);
+            }
+            long count = buffer.getLong(COUNT_OFFSET); // in file order, which may not be timestamp order
+            for (long index = 0; index < count; index++) {
+                int offset = HEADER_SIZE + (int) index * RECORD_SIZE;
+                if (!visitor.visit(buffer.getLong(offset), buffer.getLong(offset + 8), buffer.getDouble(offset + 16))) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Device ids that have at least one segment on disk.
+     */
+    public List<Integer> listDevices() throws IOException {
+        List<Integer> devices = new ArrayList<>();
+        Path root = Path.of(storePath);
+        if (!Files.isDirectory(root)) {
+            return devices;
+        }
+        try (var dirs = Files.list(root)) {
+            dirs.map(dir -> dir.getFileName().toString())
+                    .filter(name -> name.startsWith("device-"))
+                    .forEach(name -> {
+                        try {
+                            devices.add(Integer.parseInt(name.substring("device-".length())));
+                        } catch (NumberFormatException ignored) {
+                            // not one of ours
+                        }
+                    });
+        }
+        return devices;
+    }
+
+    @PreDestroy
+    public void flush() {
+        for (DeviceSegments device : writers.values()) {
+            for (Segment segment : device.open) {
+                segment.force();
+            }
+        }
+    }
+
+    /**
+     * Opens the segment of a new latest day and closes the ones that fall out of the
+     * open days. Closing only drops the writer's reference; scans still reading a
+     * segment keep it open until they finish.
+     */
+    private Segment rollSegment(int deviceId, DeviceSegments device, LocalDate day) throws IOException {
+        Segment segment = Segment.open(segmentFile(deviceId, day), day, zone, true);
+        device.open.add(segment);
+        device.latest = segment;
+
+        for (Segment previous : device.open) {
+            if (!previous.day.isAfter(day.minusDays(OPEN_DAYS))) {
+                device.open.remove(previous);
+                previous.force();
+                previous.release();
+            }
+        }
+        return segment;
+    }
+
+    private Path segmentFile(int deviceId, LocalDate day) {
+        return Path.of(storePath, "device-" + deviceId, day + ".seg");
+    }
+
+    private LocalDate toDate(long epochMillis) {
+        return Instant.ofEpochMilli(epochMillis).atZone(zone).toLocalDate();
+    }
+
+    /**
+     * A device's segments open for appends. Changed by the device's writer thread only.
+     */
+    private static final class DeviceSegments {
+
+        private final List<Segment> open = new CopyOnWriteArrayList<>();
+        private volatile Segment latest;
+
+        Segment find(LocalDate day) {
+            for (Segment segment : open) {
+                if (segment.day.equals(day)) {
+                    return segment;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * One day of one device's readings.
+     */
+    private static final class Segment {
+
+        private final LocalDate day;
+        private final long dayStartMillis;
+        private final long dayEndMillis;
+        private final FileChannel channel;
+        private final boolean writable;
+        private final MappedByteBuffer header;
+        private final List<MappedByteBuffer> regions = new ArrayList<>();
+
+        // Published after each record is written, so readers on other threads see whole records
+        private volatile long count;
+        // Set once a record arrived with an older timestamp than the one before it
+        private volatile boolean unsorted;
+        private long lastTimestamp = Long.MIN_VALUE; // writer only
+
+        // Owners of the open channel: the writer, plus each running scan
+        private final AtomicInteger refs = new AtomicInteger(1);
+
+        // Region the writer is currently filling; writer thread only
+        private MappedByteBuffer writeRegion;
+        private int writeRegionIndex = -1;
+
+        private Segment(LocalDate day, ZoneId zone, FileChannel channel, boolean writable) throws IOException {
+            this.day = day;
+            ZonedDateTime start = day.atStartOfDay(zone);
+            this.dayStartMillis = start.toInstant().toEpochMilli();
+            this.dayEndMillis = day.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+            this.channel = channel;
+            this.writable = writable;
+            this.header = map(0, HEADER_SIZE);
+        }
+
+        static Segment open(Path file, LocalDate day, ZoneId zone, boolean writable) throws IOException {
+            FileChannel channel;
+            if (writable) {
+                Files.createDirectories(file.getParent());
+                channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            } else {
+                channel = FileChannel.open(file, StandardOpenOption.READ);
+            }
+
+            boolean fresh = channel.size() == 0;
+            Segment segment = new Segment(day, zone, channel, writable);
+            if (fresh) {
+                segment.header.putInt(0, MAGIC);
+                segment.header.putInt(4, VERSION);
+                segment.header.putLong(COUNT_OFFSET, 0);
+            } else if (segment.header.getInt(0) != MAGIC) {
+                channel.close();
+                throw new IOException("Not a load-cell segment: " + file);
+            }
+            segment.count = segment.header.getLong(COUNT_OFFSET);
+            segment.unsorted = segment.header.getInt(UNSORTED_OFFSET) != 0;
+            if (writable && segment.count > 0) {
+                long last = segment.count - 1;
+                segment.lastTimestamp = segment.region(last).getLong((int) (last & (RECORDS_PER_REGION - 1)) * RECORD_SIZE);
+            }
+            return segment;
+        }
+
+        boolean covers(long timestamp) {
+            return timestamp >= dayStartMillis && timestamp < dayEndMillis;
+        }
+
+        void append(long timestamp, long rawValue, double weight) throws IOException {
+            long index = count;
+            int regionIndex = (int) (index >>> RECORDS_PER_REGION_SHIFT);
+            if (regionIndex != writeRegionIndex) {
+                writeRegion = region(index);
+                writeRegionIndex = regionIndex;
+            }
+            MappedByteBuffer region = writeRegion;
+            int offset = (int) (index & (RECORDS_PER_REGION - 1)) * RECORD_SIZE;
+            region.putLong(offset, timestamp);
+            region.putLong(offset + 8, rawValue);
+            region.putDouble(offset + 16, weight);
+
+            int minuteSlot = INDEX_OFFSET + minuteOfDay(timestamp) * Long.BYTES;
+            if (header.getLong(minuteSlot) == 0) {
+                header.putLong(minuteSlot, index + 1);
+            }
+            if (timestamp < lastTimestamp && !unsorted) {
+                // The minute index and early exit no longer hold for this segment
+                header.putInt(UNSORTED_OFFSET, 1);
+                unsorted = true;
+            }
+            lastTimestamp = Math.max(lastTimestamp, timestamp);
+
+            header.putLong(COUNT_OFFSET, index + 1);
+            count = index + 1;
+        }
+
+        /**
+         * @return false if the visitor asked to stop
+         */
+        boolean scan(long from, long to, SampleVisitor visitor) throws IOException {
+            long total = count;
+            long firstMinuteStart = Math.max(from, dayStartMillis);
+            if (total == 0 || firstMinuteStart >= dayEndMillis) {
+                return true;
+            }
+
+            // Records out of timestamp order: no index, no early exit, read it all
+            boolean sorted = !unsorted;
+
+            // Find the first minute at or after 'from' that has data
+            long start = sorted ? -1 : 0;
+            for (int minute = minuteOfDay(firstMinuteStart); sorted && minute < MINUTES_PER_DAY; minute++) {
+                long entry = header.getLong(INDEX_OFFSET + minute * Long.BYTES);
+                if (entry != 0) {
+                    start = entry - 1;
+                    break;
+                }
+            }
+            if (start < 0) {
+                return true;
+            }
+
+            for (long index = start; index < total; index++) {
+                MappedByteBuffer region = region(index);
+                int offset = (int) (index & (RECORDS_PER_REGION - 1)) * RECORD_SIZE;
+                long timestamp = region.getLong(offset);
+                if (timestamp >= to) {
+                    if (sorted) {
+                        break;
+                    }
+                    continue;
+                }
+                if (timestamp < from) {
+                    continue;
+                }
+                if (!visitor.visit(timestamp, region.getLong(offset + 8), region.getDouble(offset + 16))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void force() {
+            header.force();
+            synchronized (regions) {
+                for (MappedByteBuffer region : regions) {
+                    region.force();
+                }
+            }
+        }
+
+        /**
+         * Takes a reference for a reader.
+         *
+         * @return false if the segment was already closed
+         */
+        boolean retain() {
+            while (true) {
+                int current = refs.get();
+                if (current == 0) {
+                    return false;
+                }
+                if (refs.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Drops a reference; the last one closes the file.
+         */
+        void release() {
+            if (refs.decrementAndGet() == 0) {
+                close();
+            }
+        }
+
+        /**
+         * Closes the file; mapped regions stay readable until they are garbage collected.
+         */
+        private void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                System.err.println("[RawSampleStore] Failed to close segment for " + day + ": " + e.getMessage());
+            }
+        }
+
+        private int minuteOfDay(long timestamp) {
+            int minute = (int) ((timestamp - dayStartMillis) / 60_000L);
+            return Math.min(Math.max(minute, 0), MINUTES_PER_DAY - 1);
+        }
+
+        private MappedByteBuffer region(long recordIndex) throws IOException {
+            int regionIndex = (int) (recordIndex >>> RECORDS_PER_REGION_SHIFT);
+            synchronized (regions) {
+                while (regions.size() <= regionIndex) {
+                    regions.add(map(HEADER_SIZE + regions.size() * REGION_SIZE, REGION_SIZE));
+                }
+                return regions.get(regionIndex);
+            }
+        }
+
+        private MappedByteBuffer map(long position, long size) throws IOException {
+            // Mapping read-write past the end of the file grows it (sparsely on most file systems)
+            FileChannel.MapMode mode = writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+            long mappedSize = writable ? size : Math.max(0, Math.min(size, channel.size() - position));
+            MappedByteBuffer buffer = channel.map(mode, position, mappedSize);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return buffer;
+        }
+    }
+}
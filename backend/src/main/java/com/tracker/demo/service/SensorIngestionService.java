@@ -0,0 +1,356 @@
+package com.tracker.demo.service;
+
+import com.tracker.demo.dto.SensorData;
+import com.tracker.demo.util.ReorderBuffer;
+import com.tracker.demo.util.SensorFrameCodec;
+import com.tracker.demo.util.SensorRingBuffer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Single entry point for load-cell readings, whatever transport they arrived on
+ * (JSON over HTTP, binary frames over HTTP, or UDP datagrams).
+ *
+ * Readings are partitioned by device id across shards. Each shard owns a bounded
+ * ring buffer and one consumer thread, so every device is always processed by the
+ * same thread: its detector state is thread-confined, and devices on different
+ * shards never contend with each other.
+ *
+ * Request threads only copy readings into the ring buffer and return. When a
+ * shard's buffer is full the ingest methods report it instead of blocking, and
+ * callers answer with a backpressure status; a batch that could never fit a shard's
+ * buffer is refused outright. A batch is accepted or rejected as a whole, even when it spans several shards, so a client that resends a rejected
+ * batch never delivers any of its readings twice.
+ *
+ * Readings carry the device's own timestamp and sequence number. Before detection
+ * each device's readings pass through a small ReorderBuffer, so retried, batched or
+ * reordered deliveries are processed in sequence order and sessions are timed by
+ * when the device took the readings, not by when they were processed.
+ */
+@Service
+public class SensorIngestionService {
+
+    // Max readings handled per drain before the coalesced WebSocket messages go out
+    private static final int DRAIN_LIMIT = 256;
+    // An idle consumer parks for doubling intervals up to the cap; producers unpark it on new readings
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(500);
+    private static final long MAX_IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    @Autowired
+    private LoadCellService loadCellService;
+
+    @Autowired
+    private WebSocketService webSocketService;
+
+    @Autowired
+    private RawSampleStore rawSampleStore;
+
+    @Autowired
+    private WeightRollupService weightRollupService;
+
+    @Value("${loadcell.ingest.buffer-size:8192}")
+    private int bufferSize;
+
+    // 0 = one shard per core, capped at 4 (a household has a handful of scales)
+    @Value("${loadcell.ingest.shards:0}")
+    private int shardCount;
+
+    // Readings a device may be ahead of a missing sequence number
+    @Value("${loadcell.ingest.reorder-window:64}")
+    private int reorderWindow;
+
+    // How long readings wait for a missing sequence number before it is treated as lost
+    @Value("${loadcell.ingest.reorder-max-delay-ms:200}")
+    private long reorderMaxDelayMillis;
+
+    private Shard[] shards;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        int count = shardCount > 0 ? shardCount : Math.min(Runtime.getRuntime().availableProcessors(), 4);
+        running = true;
+        shards = new Shard[count];
+        for (int i = 0; i < count; i++) {
+            shards[i] = new Shard(i);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        for (Shard shard : shards) {
+            LockSupport.unpark(shard.thread);
+            shard.thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    /**
+     * @return false if the device's shard is full and the reading was rejected
+     */
+    public boolean ingest(SensorData sensorData) {
+        long timestamp = orNow(sensorData.getTimestamp(), System.currentTimeMillis());
+        Shard shard = shards[shardIndex(sensorData.getDeviceId())];
+        if (!shard.ringBuffer.offer(sensorData.getDeviceId(), sensorData.getSequence(), timestamp,
+                sensorData.getRawValue(), sensorData.getWeight())) {
+            return false;
+        }
+        shard.wake();
+        return true;
+    }
+
+    /**
+     * Queues an ordered batch, all-or-nothing: the slots of every shard it touches are
+     * claimed before any reading is written, and if one shard is full the claims already
+     * made are given back.
+     *
+     * @return false if a shard was full and the whole batch was rejected
+     * @throws IllegalArgumentException if the batch holds more readings for one shard than
+     *         its buffer can ever hold, so retrying it is pointless
+     */
+    public boolean ingestBatch(List<SensorData> readings) {
+        if (readings.isEmpty()) {
+            return true;
+        }
+        long receivedAt = System.currentTimeMillis();
+        int[] counts = new int[shards.length];
+        for (SensorData sensorData : readings) {
+            counts[shardIndex(sensorData.getDeviceId())]++;
+        }
+
+        long[] next = claimAll(counts);
+        if (next == null) {
+            return false;
+        }
+        for (SensorData sensorData : readings) {
+            int s = shardIndex(sensorData.getDeviceId());
+            shards[s].ringBuffer.set(next[s]++,
+                    sensorData.getDeviceId(),
+                    sensorData.getSequence(),
+                    orNow(sensorData.getTimestamp(), receivedAt),
+                    sensorData.getRawValue(),
+                    sensorData.getWeight());
+        }
+        publishAll(counts, next);
+        return true;
+    }
+
+    /**
+     * Queues every frame between the buffer's position and limit, straight from the buffer.
+     * The buffer must already be in the wire byte order and hold whole frames.
+     * All-or-nothing like {@link #ingestBatch(List)}.
+     *
+     * @return number of frames queued, or -1 if a shard was full and no frame was queued
+     * @throws IllegalArgumentException like {@link #ingestBatch(List)}
+     */
+    public int ingestFrames(ByteBuffer frames) {
+        int count = SensorFrameCodec.frameCount(frames);
+        if (count == 0) {
+            return 0;
+        }
+        long receivedAt = System.currentTimeMillis();
+        int[] counts = new int[shards.length];
+        for (int i = 0; i < count; i++) {
+            counts[shardIndex(SensorFrameCodec.deviceId(frames, i))]++;
+        }
+
+        long[] next = claimAll(counts);
+        if (next == null) {
+            return -1;
+        }
+        for (int i = 0; i < count; i++) {
+            int deviceId = SensorFrameCodec.deviceId(frames, i);
+            int s = shardIndex(deviceId);
+            shards[s].ringBuffer.set(next[s]++,
+                    deviceId,
+                    SensorFrameCodec.sequence(frames, i),
+                    orNow(SensorFrameCodec.timestamp(frames, i), receivedAt),
+                    SensorFrameCodec.rawValue(frames, i),
+                    SensorFrameCodec.weight(frames, i));
+        }
+        publishAll(counts, next);
+        return count;
+    }
+
+    /**
+     * Claims counts[s] slots in each shard s.
+     *
+     * @return first claimed sequence per shard, or null if a shard was full; the claims
+     *         made before it are cancelled then
+     */
+    private long[] claimAll(int[] counts) {
+        for (int s = 0; s < shards.length; s++) {
+            if (counts[s] > shards[s].ringBuffer.capacity()) {
+                throw new IllegalArgumentException("Batch holds " + counts[s] + " readings for one shard, more than its buffer of "
+                        + shards[s].ringBuffer.capacity());
+            }
+        }
+        long[] first = new long[shards.length];
+        for (int s = 0; s < shards.length; s++) {
+            if (counts[s] == 0) {
+                continue;
+            }
+            first[s] = shards[s].ringBuffer.tryClaim(counts[s]);
+            if (first[s] < 0) {
+                for (int claimed = 0; claimed < s; claimed++) {
+                    if (counts[claimed] > 0) {
+                        shards[claimed].ringBuffer.cancel(first[claimed], counts[claimed]);
+                    }
+                }
+                return null;
+            }
+        }
+        return first;
+    }
+
+    /**
+     * Publishes the slots claimed by {@link #claimAll}, now filled up to next[s].
+     */
+    private void publishAll(int[] counts, long[] next) {
+        for (int s = 0; s < shards.length; s++) {
+            SensorRingBuffer ringBuffer = shards[s].ringBuffer;
+            for (long sequence = next[s] - counts[s]; sequence < next[s]; sequence++) {
+                ringBuffer.publish(sequence);
+            }
+            if (counts[s] > 0) {
+                shards[s].wake();
+            }
+        }
+    }
+
+    /**
+     * Readings waiting for the consumer threads, over all shards.
+     */
+    public int getBacklog() {
+        int backlog = 0;
+        for (Shard shard : shards) {
+            backlog += shard.ringBuffer.size();
+        }
+        return backlog;
+    }
+
+    private int shardIndex(int deviceId) {
+        return Math.floorMod(deviceId, shards.length);
+    }
+
+    private static long orNow(long timestamp, long receivedAt) {
+        return timestamp != 0 ? timestamp : receivedAt;
+    }
+
+    /**
+     * One partition of the devices: a ring buffer plus the only thread that consumes it.
+     */
+    private final class Shard implements SensorRingBuffer.ReadingHandler {
+
+        private final SensorRingBuffer ringBuffer;
+        private final Thread thread;
+
+        // Per-device reordering; consumer thread only. The list is for allocation-free iteration.
+        private final Map<Integer, ReorderBuffer> reorderBuffers = new HashMap<>();
+        private final List<ReorderBuffer> reorderBufferList = new ArrayList<>();
+        private final SensorRingBuffer.ReadingHandler inOrder = this::process;
+        private long drainStartedAt;
+
+        // Set while the consumer is about to park or parked, so producers know to unpark it
+        private volatile boolean idle;
+
+        // Latest reading per device seen in the current drain; consumer thread only
+        private final Map<Integer, SensorData> latestByDevice = new HashMap<>();
+        private final List<SensorData> pendingBroadcast = new ArrayList<>();
+
+        private Shard(int index) {
+            this.ringBuffer = new SensorRingBuffer(bufferSize);
+            this.thread = new Thread(this::consumeLoop, "load-cell-consumer-" + index);
+            this.thread.setDaemon(true);
+            this.thread.start();
+        }
+
+        private void consumeLoop() {
+            long idlePark = IDLE_PARK_NANOS;
+            while (running) {
+                int drained;
+                try {
+                    drainStartedAt = System.currentTimeMillis();
+                    drained = ringBuffer.drain(this, DRAIN_LIMIT);
+                    for (int i = 0; i < reorderBufferList.size(); i++) {
+                        reorderBufferList.get(i).expire(drainStartedAt, reorderMaxDelayMillis, inOrder);
+                    }
+                } catch (Exception e) {
+                    // A failing reading must not stop the pipeline
+                    System.err.println("[SensorIngestionService] Error processing reading: " + e.getMessage());
+                    continue;
+                }
+
+                // One WebSocket message per device per drain instead of one per reading
+                for (SensorData latest : pendingBroadcast) {
+                    webSocketService.sendDataToClients(latest);
+                }
+                pendingBroadcast.clear();
+
+                if (drained > 0) {
+                    idlePark = IDLE_PARK_NANOS;
+                    continue;
+                }
+                // Checked after raising the flag: a producer that claimed before it is seen here,
+                // one that claims after it sees the flag and unparks us
+                idle = true;
+                if (ringBuffer.size() == 0) {
+                    // Wakes up on its own now and then to expire readings waiting for a lost sequence
+                    LockSupport.parkNanos(idlePark);
+                    idlePark = Math.min(idlePark * 2, MAX_IDLE_PARK_NANOS);
+                }
+                idle = false;
+            }
+        }
+
+        /**
+         * Called by producers after publishing, so an idle consumer doesn't sleep out its park.
+         */
+        private void wake() {
+            if (idle) {
+                LockSupport.unpark(thread);
+            }
+        }
+
+        @Override
+        public void onReading(int deviceId, int deviceSequence, long timestamp, long rawValue, double weight) {
+            ReorderBuffer reorderBuffer = reorderBuffers.get(deviceId);
+            if (reorderBuffer == null) {
+                reorderBuffer = new ReorderBuffer(deviceId, reorderWindow);
+                reorderBuffers.put(deviceId, reorderBuffer);
+                reorderBufferList.add(reorderBuffer);
+            }
+            reorderBuffer.accept(deviceSequence, timestamp, rawValue, weight, drainStartedAt, inOrder);
+        }
+
+        private void process(int deviceId, int deviceSequence, long timestamp, long rawValue, double weight) {
+            loadCellService.processWeightData(deviceId, timestamp, weight);
+            rawSampleStore.append(deviceId, timestamp, rawValue, weight);
+            weightRollupService.add(deviceId, timestamp, weight);
+
+            SensorData latest = latestByDevice.computeIfAbsent(deviceId, id -> {
+                SensorData holder = new SensorData();
+                holder.setDeviceId(id);
+                return holder;
+            });
+            if (!pendingBroadcast.contains(latest)) {
+                pendingBroadcast.add(latest);
+            }
+            latest.setTimestamp(timestamp);
+            latest.setSequence(deviceSequence);
+            latest.setRawValue(rawValue);
+            latest.setWeight(weight);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.tracker.demo.service;
+
+import com.tracker.demo.util.SensorFrameCodec;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+
+/**
+ * Receives load-cell readings as UDP datagrams, next to the HTTP endpoints in Esp32Controller.
+ * Each datagram carries one or more binary frames (see SensorFrameCodec).
+ * Lost or malformed datagrams are simply dropped; that's fine for live weight data.
+ */
+@Component
+public class UdpSensorListener {
+
+    // Large enough for any UDP payload, so a datagram is never truncated
+    private static final int MAX_DATAGRAM_SIZE = 65507;
+
+    @Value("${loadcell.udp.enabled:false}")
+    private boolean enabled;
+
+    @Value("${loadcell.udp.port:9876}")
+    private int port;
+
+    @Autowired
+    private SensorIngestionService sensorIngestionService;
+
+    private DatagramChannel channel;
+    private Thread receiverThread;
+
+    private volatile long datagramsReceived;
+    private volatile long datagramsDropped;
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        channel = DatagramChannel.open();
+        channel.bind(new InetSocketAddress(port));
+
+        receiverThread = new Thread(this::receiveLoop, "udp-sensor-listener");
+        receiverThread.setDaemon(true);
+        receiverThread.start();
+        System.out.println("[UdpSensorListener] Listening for sensor frames on UDP port " + port);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (channel != null) {
+            channel.close(); // unblocks receive() in the listener thread
+        }
+    }
+
+    private void receiveLoop() {
+        // One buffer reused for every datagram
+        ByteBuffer buffer = ByteBuffer.allocateDirect(MAX_DATAGRAM_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+        while (channel.isOpen()) {
+            try {
+                buffer.clear();
+                if (channel.receive(buffer) == null) {
+                    continue;
+                }
+                buffer.flip();
+                datagramsReceived++;
+
+                if (!SensorFrameCodec.isWellFormed(buffer)) {
+                    datagramsDropped++;
+                    continue;
+                }
+                if (sensorIngestionService.ingestFrames(buffer) < 0) {
+                    // Ingestion buffer full: drop, the next datagram carries a fresher value anyway
+                    datagramsDropped++;
+                }
+            } catch (ClosedChannelException e) {
+                break;
+            } catch (Exception e) {
+                // Never let one bad datagram kill the listener
+                datagramsDropped++;
+                System.err.println("[UdpSensorListener] Error handling datagram: " + e.getMessage());
+            }
+        }
+    }
+
+    public long getDatagramsReceived() {
+        return datagramsReceived;
+    }
+
+    public long getDatagramsDropped() {
+        return datagramsDropped;
+    }
+}
@@ -1,18 +1,26 @@
 package com.tracker.demo.service;
 
+import com.tracker.demo.config.SensorDataConflationInterceptor;
 import com.tracker.demo.dto.SensorData;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
+
 @Service
 public class WebSocketService {
 
     @Autowired
     private SimpMessagingTemplate messagingTemplate;
 
-    // Send data to all subscribed WebSocket clients
+    // Send data to all subscribed WebSocket clients:
+    // the shared topic (every device) and the device's own topic, e.g. /topic/sensor-data/2.
+    // The device header lets the outbound conflation keep one latest frame per device.
     public void sendDataToClients(SensorData sensorData) {
-        messagingTemplate.convertAndSend("/topic/sensor-data", sensorData);
+        Map<String, Object> headers = Map.of(SensorDataConflationInterceptor.DEVICE_HEADER,
+                String.valueOf(sensorData.getDeviceId()));
+        messagingTemplate.convertAndSend("/topic/sensor-data", sensorData, headers);
+        messagingTemplate.convertAndSend("/topic/sensor-data/" + sensorData.getDeviceId(), sensorData, headers);
     }
-}
\ No newline at end of file
+}
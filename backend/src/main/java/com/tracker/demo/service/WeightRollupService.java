@@ -0,0 +1,237 @@
+package com.tracker.demo.service;
+
+import com.tracker.demo.dto.WeightSeriesPoint;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Min / max / mean / count of the weight stream at 1-second, 1-minute and 1-hour resolution.
+ *
+ * Every reading updates one bucket per resolution in O(1), so a chart can ask for a day or a
+ * month and get a bounded number of points without rescanning raw readings. Each resolution is
+ * a fixed ring of buckets (oldest buckets are overwritten), memory-mapped next to the raw
+ * segments so the rollups survive restarts.
+ */
+@Service
+public class WeightRollupService {
+
+    public enum Resolution {
+        SECOND("1s", 1_000L, 86_400),        // one day
+        MINUTE("1m", 60_000L, 43_200),       // thirty days
+        HOUR("1h", 3_600_000L, 17_520);      // two years
+
+        private final String param;
+        private final long millis;
+        private final int buckets;
+
+        Resolution(String param, long millis, int buckets) {
+            this.param = param;
+            this.millis = millis;
+            this.buckets = buckets;
+        }
+
+        public static Resolution fromParam(String value) {
+            for (Resolution resolution : values()) {
+                if (resolution.param.equalsIgnoreCase(value) || resolution.name().equalsIgnoreCase(value)) {
+                    return resolution;
+                }
+            }
+            throw new IllegalArgumentException("Unknown resolution: " + value + " (expected 1s, 1m or 1h)");
+        }
+    }
+
+    // Upper bound on points returned when the caller lets us pick the resolution
+    private static final int MAX_AUTO_POINTS = 2_000;
+
+    @Value("${loadcell.store.enabled:true}")
+    private boolean persistent;
+
+    @Value("${loadcell.store.path:./sensor-data}")
+    private String storePath;
+
+    private final Map<Integer, RollupSeries[]> seriesByDevice = new ConcurrentHashMap<>();
+
+    /**
+     * Folds one reading into every resolution. Called from the device's ingestion shard thread.
+     */
+    public void add(int deviceId, long timestamp, double weight) {
+        RollupSeries[] series = seriesByDevice.computeIfAbsent(deviceId, this::openSeries);
+        for (RollupSeries s : series) {
+            s.add(timestamp, weight);
+        }
+    }
+
+    /**
+     * Buckets with data in [start, end). A null resolution picks the finest one that keeps
+     * the answer under {@value #MAX_AUTO_POINTS} points and is still retained for that range.
+     * Devices that never sent a reading get an empty list; nothing is created for them.
+     */
+    public List<WeightSeriesPoint> getSeries(int deviceId, long start, long end, Resolution resolution) {
+        Resolution chosen = resolution != null ? resolution : pickResolution(start, end);
+        RollupSeries[] series = seriesByDevice.get(deviceId);
+        if (series == null) {
+            if (!persistent || !Files.exists(rollupFile(deviceId, Resolution.SECOND))) {
+                return new ArrayList<>();
+            }
+            // Written before the last restart: map the existing files
+            series = seriesByDevice.computeIfAbsent(deviceId, this::openSeries);
+        }
+        return series[chosen.ordinal()].read(start, end);
+    }
+
+    @PreDestroy
+    public void flush() {
+        for (RollupSeries[] series : seriesByDevice.values()) {
+            for (RollupSeries s : series) {
+                s.force();
+            }
+        }
+    }
+
+    private Resolution pickResolution(long start, long end) {
+        long now = System.currentTimeMillis();
+        for (Resolution resolution : Resolution.values()) {
+            long points = (end - start) / resolution.millis;
+            boolean retained = start >= now - resolution.millis * resolution.buckets;
+            if (points <= MAX_AUTO_POINTS && retained) {
+                return resolution;
+            }
+        }
+        return Resolution.HOUR;
+    }
+
+    private RollupSeries[] openSeries(int deviceId) {
+        RollupSeries[] series = new RollupSeries[Resolution.values().length];
+        for (Resolution resolution : Resolution.values()) {
+            series[resolution.ordinal()] = new RollupSeries(resolution.millis, resolution.buckets,
+                    allocate(deviceId, resolution));
+        }
+        return series;
+    }
+
+    private ByteBuffer allocate(int deviceId, Resolution resolution) {
+        long size = (long) resolution.buckets * RollupSeries.BUCKET_SIZE;
+        if (persistent) {
+            Path file = rollupFile(deviceId, resolution);
+            try {
+                Files.createDirectories(file.getParent());
+                try (FileChannel channel = FileChannel.open(file,
+                        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                    return channel.map(FileChannel.MapMode.READ_WRITE, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+                }
+            } catch (IOException e) {
+                System.err.println("[WeightRollupService] Falling back to in-memory rollups for device "
+                        + deviceId + ": " + e.getMessage());
+            }
+        }
+        return ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private Path rollupFile(int deviceId, Resolution resolution) {
+        return Path.of(storePath, "device-" + deviceId, "rollup-" + resolution.param + ".bin");
+    }
+
+    /**
+     * Ring of fixed-size buckets for one resolution. A slot remembers which bucket it holds,
+     * so stale slots from an earlier lap of the ring are recognised and reset on write.
+     * Readings more than one lap behind the newest bucket are dropped: their slot belongs to
+     * a current bucket, and an older bucket never replaces a newer one.
+     */
+    private static final class RollupSeries {
+
+        // bucket number + 1 (0 = empty), min, max, sum, count
+        static final int BUCKET_SIZE = 40;
+
+        private final long resolutionMillis;
+        private final int capacity;
+        private final ByteBuffer buckets;
+        // Newest bucket written so far, recovered from the slots after a restart
+        private long newest = Long.MIN_VALUE;
+
+        RollupSeries(long resolutionMillis, int capacity, ByteBuffer buckets) {
+            this.resolutionMillis = resolutionMillis;
+            this.capacity = capacity;
+            this.buckets = buckets;
+            for (int slot = 0; slot < capacity; slot++) {
+                long stored = buckets.getLong(slot * BUCKET_SIZE);
+                if (stored != 0) {
+                    newest = Math.max(newest, stored - 1);
+                }
+            }
+        }
+
+        synchronized void add(long timestamp, double weight) {
+            long bucket = Math.floorDiv(timestamp, resolutionMillis);
+            if (newest != Long.MIN_VALUE && bucket <= newest - capacity) {
+                // Fell off the ring already
+                return;
+            }
+            newest = Math.max(newest, bucket);
+            int offset = (int) Math.floorMod(bucket, capacity) * BUCKET_SIZE;
+
+            long stored = buckets.getLong(offset);
+            if (stored != bucket + 1) {
+                if (stored > bucket + 1) {
+                    return;
+                }
+                buckets.putLong(offset, bucket + 1);
+                buckets.putDouble(offset + 8, weight);
+                buckets.putDouble(offset + 16, weight);
+                buckets.putDouble(offset + 24, weight);
+                buckets.putLong(offset + 32, 1);
+                return;
+            }
+            if (weight < buckets.getDouble(offset + 8)) {
+                buckets.putDouble(offset + 8, weight);
+            }
+            if (weight > buckets.getDouble(offset + 16)) {
+                buckets.putDouble(offset + 16, weight);
+            }
+            buckets.putDouble(offset + 24, buckets.getDouble(offset + 24) + weight);
+            buckets.putLong(offset + 32, buckets.getLong(offset + 32) + 1);
+        }
+
+        synchronized List<WeightSeriesPoint> read(long start, long end) {
+            List<WeightSeriesPoint> points = new ArrayList<>();
+            long first = Math.floorDiv(start, resolutionMillis);
+            long last = Math.floorDiv(end - 1, resolutionMillis);
+            // Anything older than one lap of the ring has been overwritten
+            first = Math.max(first, last - capacity + 1);
+
+            for (long bucket = first; bucket <= last; bucket++) {
+                int offset = (int) Math.floorMod(bucket, capacity) * BUCKET_SIZE;
+                if (buckets.getLong(offset) != bucket + 1) {
+                    continue;
+                }
+                long count = buckets.getLong(offset + 32);
+                points.add(new WeightSeriesPoint(
+                        bucket * resolutionMillis,
+                        buckets.getDouble(offset + 8),
+                        buckets.getDouble(offset + 16),
+                        buckets.getDouble(offset + 24) / count,
+                        count));
+            }
+            return points;
+        }
+
+        void force() {
+            if (buckets instanceof MappedByteBuffer mapped) {
+                mapped.force();
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.tracker.demo.service.detector;
+
+/**
+ * Rolling mean of the last N readings, kept in a primitive ring with a running sum
+ * so each update is O(1) and allocation-free.
+ */
+public class BaselineWindow {
+
+    private final double[] readings;
+    private int next = 0;     // slot the next reading goes into
+    private int count = 0;    // readings in the window (< size until it first fills)
+    private double sum = 0.0;
+    private double mean = 0.0;
+
+    public BaselineWindow(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Baseline window must hold at least one reading: " + size);
+        }
+        this.readings = new double[size];
+    }
+
+    public void add(double weight) {
+        if (count == readings.length) {
+            sum -= readings[next];
+        } else {
+            count++;
+        }
+        readings[next] = weight;
+        sum += weight;
+
+        next++;
+        if (next == readings.length) {
+            next = 0;
+            // Re-add from scratch once per lap so floating-point drift in the running sum can't build up
+            double exact = 0.0;
+            for (int i = 0; i < count; i++) {
+                exact += readings[i];
+            }
+            sum = exact;
+        }
+        mean = sum / count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public double mean() {
+        return mean;
+    }
+
+    public void clear() {
+        next = 0;
+        count = 0;
+        sum = 0.0;
+        mean = 0.0;
+    }
+}
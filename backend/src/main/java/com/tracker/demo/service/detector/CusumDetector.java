@@ -0,0 +1,74 @@
+package com.tracker.demo.service.detector;
+
+/**
+ * One-sided CUSUM change detection against the rolling idle baseline.
+ *
+ * While idle, it accumulates how far readings sit below baseline beyond an allowed
+ * {@code drift} (kg per reading); a session starts once that sum reaches {@code limit}.
+ * While active, it accumulates the opposite evidence and stops the same way. Small
+ * sustained loads are caught quickly while isolated spikes are ignored.
+ */
+public class CusumDetector implements ExerciseDetector {
+
+    private final double drift;
+    private final double limit;
+    private final BaselineWindow baseline;
+
+    private double loadedSum = 0.0;
+    private double unloadedSum = 0.0;
+    private boolean isExerciseActive = false;
+
+    public CusumDetector(double drift, double limit, int baselineWindow) {
+        this.drift = drift;
+        this.limit = limit;
+        this.baseline = new BaselineWindow(baselineWindow);
+    }
+
+    @Override
+    public Transition onReading(double weight) {
+        if (baseline.isEmpty()) {
+            baseline.add(weight);
+            return Transition.NONE;
+        }
+
+        // Positive when the bar carries more than its idle weight (heavier reads more negative)
+        double deviation = baseline.mean() - weight;
+
+        if (!isExerciseActive) {
+            loadedSum = Math.max(0.0, loadedSum + deviation - drift);
+            if (loadedSum >= limit) {
+                isExerciseActive = true;
+                loadedSum = 0.0;
+                unloadedSum = 0.0;
+                return Transition.STARTED;
+            }
+            baseline.add(weight);
+            return Transition.NONE;
+        }
+
+        unloadedSum = Math.max(0.0, unloadedSum + drift - deviation);
+        if (unloadedSum >= limit) {
+            isExerciseActive = false;
+            unloadedSum = 0.0;
+            return Transition.STOPPED;
+        }
+        return Transition.NONE;
+    }
+
+    @Override
+    public boolean isExerciseActive() {
+        return isExerciseActive;
+    }
+
+    @Override
+    public double getBaselineWeight() {
+        return baseline.mean();
+    }
+
+    @Override
+    public void resetBaseline() {
+        baseline.clear();
+        loadedSum = 0.0;
+        unloadedSum = 0.0;
+    }
+}
@@ -0,0 +1,149 @@
+package com.tracker.demo.service.detector;
+
+import com.tracker.demo.config.DetectorProperties;
+import com.tracker.demo.dto.ReplayReport;
+import com.tracker.demo.service.RawSampleStore;
+import org.springframework.beans.BeanWrapperImpl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Pushes recorded readings through a detector as fast as it can take them and reports
+ * throughput plus the sessions it found. Session times come from the recorded timestamps,
+ * so results match what the detector would have produced live.
+ *
+ * From the command line, over segment files written by RawSampleStore (or CSV files of
+ * {@code timestamp,weight} lines), files or directories in any mix:
+ * <pre>
+ *   java -cp demo.jar -Dloader.main=com.tracker.demo.service.detector.DetectorReplayHarness \
+ *        org.springframework.boot.loader.launch.PropertiesLauncher \
+ *        --type=cusum --cusumLimit=25 sensor-data/device-0
+ * </pre>
+ * Any {@code --name=value} option sets the DetectorProperties field of that name.
+ */
+public final class DetectorReplayHarness {
+
+    /**
+     * Feeds readings to a visitor, oldest first.
+     */
+    public interface ReadingSource {
+        void forEach(RawSampleStore.SampleVisitor visitor) throws IOException;
+    }
+
+    private DetectorReplayHarness() {
+    }
+
+    public static ReplayReport replay(ExerciseDetector detector, String detectorType, ReadingSource source)
+            throws IOException {
+        ReplayReport report = new ReplayReport();
+        report.setDetectorType(detectorType);
+
+        long[] samples = {0};
+        long[] sessionStart = {-1};
+        long startNanos = System.nanoTime();
+
+        source.forEach((timestamp, rawValue, weight) -> {
+            samples[0]++;
+            ExerciseDetector.Transition transition = detector.onReading(weight);
+            if (transition == ExerciseDetector.Transition.STARTED) {
+                sessionStart[0] = timestamp;
+            } else if (transition == ExerciseDetector.Transition.STOPPED && sessionStart[0] >= 0) {
+                report.getSessions().add(new ReplayReport.DetectedSession(sessionStart[0], timestamp));
+                sessionStart[0] = -1;
+            }
+            return true;
+        });
+
+        long elapsedNanos = Math.max(1, System.nanoTime() - startNanos);
+        report.setSamples(samples[0]);
+        report.setElapsedMillis(elapsedNanos / 1_000_000);
+        report.setSamplesPerSecond(samples[0] * 1e9 / elapsedNanos);
+        report.setTotalSessionSeconds(report.getSessions().stream()
+                .mapToLong(ReplayReport.DetectedSession::getSeconds)
+                .sum());
+        return report;
+    }
+
+    /**
+     * Reads .seg and .csv files; directories are expanded (sorted, so days replay in order).
+     */
+    public static ReadingSource filesSource(List<Path> paths) {
+        return visitor -> {
+            for (Path file : expand(paths)) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".seg")) {
+                    RawSampleStore.readSegmentFile(file, visitor);
+                } else if (name.endsWith(".csv")) {
+                    readCsv(file, visitor);
+                }
+            }
+        };
+    }
+
+    public static void main(String[] args) throws IOException {
+        DetectorProperties properties = new DetectorProperties();
+        List<Path> paths = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                String name = arg.substring(2, arg.indexOf('='));
+                String value = arg.substring(arg.indexOf('=') + 1);
+                new BeanWrapperImpl(properties).setPropertyValue(name, value);
+            } else {
+                paths.add(Path.of(arg));
+            }
+        }
+        if (paths.isEmpty()) {
+            System.err.println("Usage: DetectorReplayHarness [--type=threshold|hysteresis|ewma|cusum] [--<param>=<value>...] <file-or-dir>...");
+            System.exit(1);
+        }
+
+        ExerciseDetector detector = ExerciseDetectorFactory.create(properties);
+        ReplayReport report = replay(detector, properties.getType(), filesSource(paths));
+
+        System.out.printf("detector=%s samples=%d elapsed=%dms throughput=%.0f samples/s%n",
+                report.getDetectorType(), report.getSamples(), report.getElapsedMillis(), report.getSamplesPerSecond());
+        for (ReplayReport.DetectedSession session : report.getSessions()) {
+            System.out.printf("  session %s -> %s : %ds%n",
+                    Instant.ofEpochMilli(session.getStart()),
+                    Instant.ofEpochMilli(session.getEnd()),
+                    session.getSeconds());
+        }
+        System.out.printf("sessions=%d total=%ds%n", report.getSessions().size(), report.getTotalSessionSeconds());
+    }
+
+    private static List<Path> expand(List<Path> paths) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (Path path : paths) {
+            if (Files.isDirectory(path)) {
+                try (Stream<Path> children = Files.walk(path)) {
+                    children.filter(Files::isRegularFile).sorted().forEach(files::add);
+                }
+            } else {
+                files.add(path);
+            }
+        }
+        return files;
+    }
+
+    private static void readCsv(Path file, RawSampleStore.SampleVisitor visitor) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(",");
+                if (parts.length < 2 || parts[0].isBlank() || !Character.isDigit(parts[0].trim().charAt(0))) {
+                    continue; // header, blank line or missing timestamp
+                }
+                if (!visitor.visit(Long.parseLong(parts[0].trim()), 0, Double.parseDouble(parts[1].trim()))) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.tracker.demo.service.detector;
+
+/**
+ * Compares a fast exponentially weighted moving average of the signal against a slow
+ * one used as baseline. Smoothing the signal filters single noisy samples, and the slow
+ * baseline (only updated while idle) follows drift of the load cell over the day.
+ * A session starts when the fast average is {@code threshold} kg below baseline and
+ * stops when it is back within {@code stopThreshold} kg, the same two levels as
+ * {@link HysteresisDetector}.
+ */
+public class EwmaDetector implements ExerciseDetector {
+
+    private final double threshold;
+    private final double stopThreshold;
+    private final double signalAlpha;
+    private final double baselineAlpha;
+
+    private double signal;
+    private double baseline;
+    private boolean primed = false;
+    private boolean isExerciseActive = false;
+
+    public EwmaDetector(double threshold, double stopThreshold, double signalAlpha, double baselineAlpha) {
+        if (stopThreshold > threshold) {
+            throw new IllegalArgumentException("Stop threshold " + stopThreshold
+                    + " must not exceed start threshold " + threshold);
+        }
+        if (signalAlpha <= 0 || signalAlpha > 1 || baselineAlpha <= 0 || baselineAlpha > 1) {
+            throw new IllegalArgumentException("EWMA factors must be in (0, 1]");
+        }
+        this.threshold = threshold;
+        this.stopThreshold = stopThreshold;
+        this.signalAlpha = signalAlpha;
+        this.baselineAlpha = baselineAlpha;
+    }
+
+    @Override
+    public Transition onReading(double weight) {
+        if (!primed) {
+            signal = weight;
+            baseline = weight;
+            primed = true;
+            return Transition.NONE;
+        }
+
+        signal += signalAlpha * (weight - signal);
+
+        if (!isExerciseActive) {
+            if (signal <= baseline - threshold) {
+                isExerciseActive = true;
+                return Transition.STARTED;
+            }
+            baseline += baselineAlpha * (weight - baseline);
+            return Transition.NONE;
+        }
+
+        if (signal > baseline - stopThreshold) {
+            isExerciseActive = false;
+            return Transition.STOPPED;
+        }
+        return Transition.NONE;
+    }
+
+    @Override
+    public boolean isExerciseActive() {
+        return isExerciseActive;
+    }
+
+    @Override
+    public double getBaselineWeight() {
+        return baseline;
+    }
+
+    @Override
+    public void resetBaseline() {
+        primed = false;
+        signal = 0.0;
+        baseline = 0.0;
+    }
+}
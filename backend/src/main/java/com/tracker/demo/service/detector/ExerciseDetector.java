@@ -0,0 +1,28 @@
+package com.tracker.demo.service.detector;
+
+/**
+ * Decides, reading by reading, whether someone is exercising on ONE load cell.
+ *
+ * Implementations only classify the weight signal; timing the session is up to the caller.
+ * They are not thread-safe on purpose: each device is pinned to one ingestion shard,
+ * so only that shard's consumer thread ever feeds a given detector. The hot path
+ * must not allocate.
+ */
+public interface ExerciseDetector {
+
+    enum Transition { NONE, STARTED, STOPPED }
+
+    /**
+     * Feeds one reading (kg) and reports whether an exercise just started or stopped.
+     */
+    Transition onReading(double weight);
+
+    boolean isExerciseActive();
+
+    /**
+     * Weight of the idle bar / empty scale the detector currently compares against.
+     */
+    double getBaselineWeight();
+
+    void resetBaseline();
+}
@@ -0,0 +1,47 @@
+package com.tracker.demo.service.detector;
+
+import com.tracker.demo.config.DetectorProperties;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds a fresh detector of the type selected by {@code loadcell.detector.type}.
+ */
+@Component
+public class ExerciseDetectorFactory {
+
+    @Autowired
+    private DetectorProperties detectorProperties;
+
+    /**
+     * Builds one detector at startup, so a misspelled {@code loadcell.detector.type} stops
+     * the application instead of failing on every reading.
+     */
+    @PostConstruct
+    public void validate() {
+        create(detectorProperties);
+    }
+
+    public ExerciseDetector create() {
+        return create(detectorProperties);
+    }
+
+    /**
+     * Same as {@link #create()}, for callers outside Spring (replay harness, benchmarks).
+     */
+    public static ExerciseDetector create(DetectorProperties properties) {
+        return switch (properties.getType().toLowerCase()) {
+            case "threshold" -> new ThresholdDetector(properties.getThreshold(), properties.getBaselineWindow(),
+                    properties.getStartConsecutive(), properties.getStopConsecutive());
+            case "hysteresis" -> new HysteresisDetector(properties.getThreshold(), properties.getStopThreshold(),
+                    properties.getBaselineWindow(), properties.getStartConsecutive(), properties.getStopConsecutive());
+            case "ewma" -> new EwmaDetector(properties.getThreshold(), properties.getStopThreshold(),
+                    properties.getSignalAlpha(), properties.getBaselineAlpha());
+            case "cusum" -> new CusumDetector(properties.getCusumDrift(), properties.getCusumLimit(),
+                    properties.getBaselineWindow());
+            default -> throw new IllegalArgumentException("Unknown detector type: " + properties.getType()
+                    + " (expected threshold, hysteresis, ewma or cusum)");
+        };
+    }
+}
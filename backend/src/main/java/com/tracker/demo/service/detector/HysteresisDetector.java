@@ -0,0 +1,71 @@
+package com.tracker.demo.service.detector;
+
+/**
+ * Threshold detection with two levels: a session starts once the reading drops
+ * {@code startThreshold} kg below baseline and only ends once it comes back within
+ * {@code stopThreshold} kg. Readings wobbling around a single threshold (swinging on
+ * the bar, shifting grip) therefore don't split one session into many.
+ */
+public class HysteresisDetector implements ExerciseDetector {
+
+    private final double startThreshold;
+    private final double stopThreshold;
+    private final int startConsecutive;
+    private final int stopConsecutive;
+    private final BaselineWindow baseline;
+
+    private int consecutiveLoaded = 0;
+    private int consecutiveUnloaded = 0;
+    private boolean isExerciseActive = false;
+
+    public HysteresisDetector(double startThreshold, double stopThreshold, int baselineWindow,
+                              int startConsecutive, int stopConsecutive) {
+        if (stopThreshold > startThreshold) {
+            throw new IllegalArgumentException("Stop threshold " + stopThreshold
+                    + " must not exceed start threshold " + startThreshold);
+        }
+        this.startThreshold = startThreshold;
+        this.stopThreshold = stopThreshold;
+        this.startConsecutive = startConsecutive;
+        this.stopConsecutive = stopConsecutive;
+        this.baseline = new BaselineWindow(baselineWindow);
+    }
+
+    @Override
+    public Transition onReading(double weight) {
+        if (!isExerciseActive) {
+            baseline.add(weight);
+            consecutiveLoaded = weight <= baseline.mean() - startThreshold ? consecutiveLoaded + 1 : 0;
+            if (consecutiveLoaded >= startConsecutive) {
+                isExerciseActive = true;
+                consecutiveLoaded = 0;
+                consecutiveUnloaded = 0;
+                return Transition.STARTED;
+            }
+            return Transition.NONE;
+        }
+
+        consecutiveUnloaded = weight > baseline.mean() - stopThreshold ? consecutiveUnloaded + 1 : 0;
+        if (consecutiveUnloaded >= stopConsecutive) {
+            isExerciseActive = false;
+            consecutiveUnloaded = 0;
+            return Transition.STOPPED;
+        }
+        return Transition.NONE;
+    }
+
+    @Override
+    public boolean isExerciseActive() {
+        return isExerciseActive;
+    }
+
+    @Override
+    public double getBaselineWeight() {
+        return baseline.mean();
+    }
+
+    @Override
+    public void resetBaseline() {
+        baseline.clear();
+    }
+}
@@ -0,0 +1,72 @@
+package com.tracker.demo.service.detector;
+
+/**
+ * The original detector: exercise while the reading is at least {@code threshold} kg
+ * below the rolling mean of idle readings (negative means heavier), after
+ * {@code startConsecutive} / {@code stopConsecutive} readings on either side.
+ */
+public class ThresholdDetector implements ExerciseDetector {
+
+    private final double threshold;
+    private final int startConsecutive;
+    private final int stopConsecutive;
+    private final BaselineWindow baseline;
+
+    private int consecutiveAboveThresholdCount = 0;
+    private int consecutiveBelowThresholdCount = 0;
+    private boolean isExerciseActive = false;
+
+    public ThresholdDetector(double threshold, int baselineWindow, int startConsecutive, int stopConsecutive) {
+        this.threshold = threshold;
+        this.startConsecutive = startConsecutive;
+        this.stopConsecutive = stopConsecutive;
+        this.baseline = new BaselineWindow(baselineWindow);
+    }
+
+    @Override
+    public Transition onReading(double weight) {
+        // 1) If NOT currently exercising, feed into baseline window
+        if (!isExerciseActive) {
+            baseline.add(weight);
+        }
+
+        // 2) Compare to adjusted threshold
+        double adjustedThreshold = baseline.mean() - threshold;
+        if (weight <= adjustedThreshold) {
+            consecutiveAboveThresholdCount++;
+            consecutiveBelowThresholdCount = 0;
+        } else {
+            consecutiveBelowThresholdCount++;
+            consecutiveAboveThresholdCount = 0;
+        }
+
+        // 3) Check if exercise should start
+        if (!isExerciseActive && consecutiveAboveThresholdCount >= startConsecutive) {
+            isExerciseActive = true;
+            return Transition.STARTED;
+        }
+
+        // 4) Check if exercise should stop
+        if (isExerciseActive && consecutiveBelowThresholdCount >= stopConsecutive) {
+            isExerciseActive = false;
+            return Transition.STOPPED;
+        }
+
+        return Transition.NONE;
+    }
+
+    @Override
+    public boolean isExerciseActive() {
+        return isExerciseActive;
+    }
+
+    @Override
+    public double getBaselineWeight() {
+        return baseline.mean();
+    }
+
+    @Override
+    public void resetBaseline() {
+        baseline.clear();
+    }
+}
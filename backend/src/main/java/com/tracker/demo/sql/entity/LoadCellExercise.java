@@ -0,0 +1,48 @@
+package com.tracker.demo.sql.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One detected exercise session. LoadCellSession keeps the per-day total,
+ * this keeps every individual session behind it.
+ */
+@Setter
+@Getter
+@Entity
+@Table(name = "load_cell_exercise", indexes = {
+        @Index(name = "idx_load_cell_exercise_device_start", columnList = "device_id, start_time")
+})
+public class LoadCellExercise {
+
+    // Sequence ids (not IDENTITY) so Hibernate can batch the inserts; ids are reserved 50 at a time
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "load_cell_exercise_seq")
+    @SequenceGenerator(name = "load_cell_exercise_seq", sequenceName = "load_cell_exercise_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private int deviceId;
+
+    @Column(nullable = false)
+    private LocalDate date;             // day the session ended on, same as its LoadCellSession total
+
+    @Column(nullable = false)
+    private LocalDateTime startTime;
+
+    @Column(nullable = false)
+    private LocalDateTime endTime;
+
+    private long durationSeconds;
+}
@@ -0,0 +1,36 @@
+package com.tracker.demo.sql.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Highest session-journal sequence number whose seconds are in the DB.
+ * Written in the same transaction as the totals, so a journal replay after a
+ * crash knows which entries were already applied.
+ */
+@Setter
+@Getter
+@Entity
+@Table(name = "load_cell_journal_mark")
+public class LoadCellJournalMark {
+
+    // There is one journal, so there is one row
+    public static final long ID = 1L;
+
+    @Id
+    private Long id;
+
+    private long flushedSequence;
+
+    public LoadCellJournalMark() {
+
+    }
+
+    public LoadCellJournalMark(Long id, long flushedSequence) {
+        this.id = id;
+        this.flushedSequence = flushedSequence;
+    }
+}
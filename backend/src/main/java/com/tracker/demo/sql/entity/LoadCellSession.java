@@ -1,5 +1,6 @@
 package com.tracker.demo.sql.entity;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -18,6 +19,9 @@ public class LoadCellSession {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Column(nullable = false, columnDefinition = "INT DEFAULT 0")
+    private int deviceId;           // which load cell the total belongs to (0 = original scale)
+
     private LocalDate date;
     private long durationSeconds;   // total accumulated duration in seconds for that day
 
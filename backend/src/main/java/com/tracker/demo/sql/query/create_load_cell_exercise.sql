@@ -0,0 +1,17 @@
+-- One row per detected exercise session (LoadCellExercise).
+-- load_cell_session keeps the per-day totals these add up to.
+
+CREATE SEQUENCE IF NOT EXISTS load_cell_exercise_seq INCREMENT BY 50;  -- matches allocationSize
+
+CREATE TABLE IF NOT EXISTS load_cell_exercise (
+    id BIGINT PRIMARY KEY,                  -- from load_cell_exercise_seq, assigned in batches
+    device_id INT NOT NULL,                 -- which load cell (0 = original scale)
+    date DATE NOT NULL,                     -- day the session ended on
+    start_time TIMESTAMP NOT NULL,          -- Start time of the exercise
+    end_time TIMESTAMP NOT NULL,            -- End time of the exercise
+    duration_seconds BIGINT NOT NULL        -- Duration of the exercise in seconds
+);
+
+-- Range scans and date_trunc('day' | 'hour') rollups filter on device and start time
+CREATE INDEX IF NOT EXISTS idx_load_cell_exercise_device_start
+    ON load_cell_exercise (device_id, start_time);
@@ -0,0 +1,7 @@
+-- Last session-journal entry applied to load_cell_session / load_cell_exercise (LoadCellJournalMark).
+-- Updated in the same transaction as the totals; entries at or below it are skipped on replay.
+
+CREATE TABLE IF NOT EXISTS load_cell_journal_mark (
+    id BIGINT PRIMARY KEY,                  -- always 1, there is one journal
+    flushed_sequence BIGINT NOT NULL        -- highest journal sequence number already in the DB
+);
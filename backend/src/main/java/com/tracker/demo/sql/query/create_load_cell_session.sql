@@ -1,7 +1,15 @@
-CREATE TABLE load_cell_session (
+CREATE TABLE IF NOT EXISTS load_cell_session (
     id SERIAL PRIMARY KEY,                  -- Auto-incrementing primary key
+    device_id INT NOT NULL DEFAULT 0,       -- which load cell (0 = original scale)
     date DATE NOT NULL,                     -- Date of the exercise session
     start_time TIMESTAMP NOT NULL,          -- Start time of the exercise
     end_time TIMESTAMP NOT NULL,            -- End time of the exercise
     duration_seconds BIGINT NOT NULL        -- Duration of the exercise in seconds
-);
\ No newline at end of file
+);
+
+-- Tables created before devices were tracked: existing totals belong to the original scale
+ALTER TABLE load_cell_session ADD COLUMN IF NOT EXISTS device_id INT NOT NULL DEFAULT 0;
+
+-- Day totals are looked up and ranged by device and date
+CREATE INDEX IF NOT EXISTS idx_load_cell_session_device_date
+    ON load_cell_session (device_id, date);
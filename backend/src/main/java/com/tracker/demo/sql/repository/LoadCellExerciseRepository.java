@@ -0,0 +1,61 @@
+package com.tracker.demo.sql.repository;
+
+import com.tracker.demo.sql.entity.LoadCellExercise;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface LoadCellExerciseRepository extends JpaRepository<LoadCellExercise, Long> {
+
+    /**
+     * One row of a per-day or per-hour aggregate.
+     */
+    interface Bucket {
+        LocalDateTime getBucket();
+
+        long getSessions();
+
+        long getSeconds();
+    }
+
+    @Query("""
+        SELECT e FROM LoadCellExercise e
+        WHERE e.deviceId = :deviceId AND e.startTime >= :start AND e.startTime < :end
+        ORDER BY e.startTime
+        """)
+    List<LoadCellExercise> findSessions(@Param("deviceId") int deviceId,
+                                        @Param("start") LocalDateTime start,
+                                        @Param("end") LocalDateTime end,
+                                        Pageable pageable);
+
+    // Aggregated in Postgres over the (device_id, start_time) index; only one row per bucket comes back
+    @Query(value = """
+        SELECT date_trunc('day', start_time) AS bucket, COUNT(*) AS sessions, SUM(duration_seconds) AS seconds
+        FROM load_cell_exercise
+        WHERE device_id = :deviceId AND start_time >= :start AND start_time < :end
+        GROUP BY 1
+        ORDER BY 1
+        """,
+            nativeQuery = true)
+    List<Bucket> sumPerDay(@Param("deviceId") int deviceId,
+                           @Param("start") LocalDateTime start,
+                           @Param("end") LocalDateTime end);
+
+    @Query(value = """
+        SELECT date_trunc('hour', start_time) AS bucket, COUNT(*) AS sessions, SUM(duration_seconds) AS seconds
+        FROM load_cell_exercise
+        WHERE device_id = :deviceId AND start_time >= :start AND start_time < :end
+        GROUP BY 1
+        ORDER BY 1
+        """,
+            nativeQuery = true)
+    List<Bucket> sumPerHour(@Param("deviceId") int deviceId,
+                            @Param("start") LocalDateTime start,
+                            @Param("end") LocalDateTime end);
+}
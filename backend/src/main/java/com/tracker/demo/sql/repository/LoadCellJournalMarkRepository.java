@@ -0,0 +1,9 @@
+package com.tracker.demo.sql.repository;
+
+import com.tracker.demo.sql.entity.LoadCellJournalMark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface LoadCellJournalMarkRepository extends JpaRepository<LoadCellJournalMark, Long> {
+}
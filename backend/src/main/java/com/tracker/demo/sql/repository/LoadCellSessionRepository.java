@@ -9,7 +9,7 @@ import java.util.List;
 
 @Repository
 public interface LoadCellSessionRepository extends JpaRepository<LoadCellSession, Long> {
-    LoadCellSession findByDate(LocalDate date);
+    LoadCellSession findByDeviceIdAndDate(int deviceId, LocalDate date);
 
-    List<LoadCellSession> findByDateBetween(LocalDate startDate, LocalDate endDate);
+    List<LoadCellSession> findByDeviceIdAndDateBetween(int deviceId, LocalDate startDate, LocalDate endDate);
 }
@@ -0,0 +1,143 @@
+package com.tracker.demo.util;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Seconds of activity per epoch second, answering "how many active seconds in [a, b)"
+ * in O(log n) for any range.
+ *
+ * Each day is a pair of Fenwick trees over its 86,400 seconds (range add, range sum),
+ * kept in a small ring of the most recent days; older data is dropped. Writers take
+ * the write lock, readers use optimistic reads and only fall back to the read lock
+ * if a write raced them, so queries never hold up the ingestion threads.
+ */
+public class ActivityIndex {
+
+    private static final int SECONDS_PER_DAY = 86_400;
+
+    private final Day[] days;
+    private final StampedLock lock = new StampedLock();
+
+    public ActivityIndex(int retentionDays) {
+        this.days = new Day[retentionDays];
+    }
+
+    /**
+     * Marks every second in [startSecond, endSecond) as active once more.
+     * Seconds older than the retention are ignored.
+     */
+    public void add(long startSecond, long endSecond) {
+        long stamp = lock.writeLock();
+        try {
+            long second = startSecond;
+            while (second < endSecond) {
+                long epochDay = Math.floorDiv(second, SECONDS_PER_DAY);
+                long dayStart = epochDay * SECONDS_PER_DAY;
+                long until = Math.min(endSecond, dayStart + SECONDS_PER_DAY);
+                Day day = dayForWrite(epochDay);
+                if (day != null) {
+                    day.add((int) (second - dayStart), (int) (until - dayStart));
+                }
+                second = until;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Active seconds in [fromSecond, toSecond), summed over all retained days.
+     */
+    public long sum(long fromSecond, long toSecond) {
+        long stamp = lock.tryOptimisticRead();
+        long result = sumUnlocked(fromSecond, toSecond);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                result = sumUnlocked(fromSecond, toSecond);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return result;
+    }
+
+    private long sumUnlocked(long fromSecond, long toSecond) {
+        long total = 0;
+        for (Day day : days) {
+            if (day == null) {
+                continue;
+            }
+            long dayStart = day.epochDay * SECONDS_PER_DAY;
+            long from = Math.max(fromSecond, dayStart);
+            long to = Math.min(toSecond, dayStart + SECONDS_PER_DAY);
+            if (from < to) {
+                total += day.prefix((int) (to - dayStart)) - day.prefix((int) (from - dayStart));
+            }
+        }
+        return total;
+    }
+
+    /**
+     * The day's trees, recycling the ring slot of a day that fell out of the retention.
+     * Null if the day itself is already too old. Caller holds the write lock.
+     */
+    private Day dayForWrite(long epochDay) {
+        int slot = (int) Math.floorMod(epochDay, (long) days.length);
+        Day day = days[slot];
+        if (day == null) {
+            day = new Day();
+            day.epochDay = epochDay;
+            days[slot] = day;
+        } else if (day.epochDay < epochDay) {
+            day.reset(epochDay);
+        } else if (day.epochDay > epochDay) {
+            return null;
+        }
+        return day;
+    }
+
+    /**
+     * Two Fenwick trees b1/b2 such that prefix(x) = x * sum(b1, x) - sum(b2, x)
+     * is the number of active seconds in [0, x) of the day.
+     */
+    private static final class Day {
+        private long epochDay;
+        private final long[] b1 = new long[SECONDS_PER_DAY + 2];
+        private final long[] b2 = new long[SECONDS_PER_DAY + 2];
+
+        void add(int from, int to) {
+            update(b1, from, 1);
+            update(b1, to, -1);
+            update(b2, from, from);
+            update(b2, to, -to);
+        }
+
+        long prefix(int x) {
+            return x * query(b1, x) - query(b2, x);
+        }
+
+        void reset(long epochDay) {
+            this.epochDay = epochDay;
+            Arrays.fill(b1, 0);
+            Arrays.fill(b2, 0);
+        }
+
+        // Point update at 0-based index i, seen by every prefix that extends past i
+        private static void update(long[] tree, int i, long delta) {
+            for (int pos = i + 1; pos < tree.length; pos += pos & -pos) {
+                tree[pos] += delta;
+            }
+        }
+
+        // Sum of updates at 0-based indexes < x
+        private static long query(long[] tree, int x) {
+            long sum = 0;
+            for (int pos = x; pos > 0; pos -= pos & -pos) {
+                sum += tree[pos];
+            }
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package com.tracker.demo.util;
+
+import com.tracker.demo.dto.RateLimitStatus;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * RestTemplate interceptor that keeps GitHub calls within the API rate limit.
+ *
+ * GitHub reports the budget left in every response (X-RateLimit-Remaining, reset at
+ * X-RateLimit-Reset); each call takes one token from that budget before it is sent.
+ * Calls belong to one of two lanes:
+ * <ul>
+ *   <li>interactive (the default): sent right away while any budget is left;</li>
+ *   <li>batch (scheduled jobs, see {@link #inBatchLane}): paced to at most
+ *       batchPerSecond, spread out so they never eat into the last interactiveReserve
+ *       calls of a window, and held back whenever an interactive call is waiting.</li>
+ * </ul>
+ * When GitHub throttles anyway (403/429 with Retry-After or no budget left), all calls
+ * pause until it allows them again; batch calls are then retried instead of failing.
+ */
+public class GitHubRateLimiter implements ClientHttpRequestInterceptor {
+
+    public enum Lane { INTERACTIVE, BATCH }
+
+    private static final ThreadLocal<Lane> LANE = ThreadLocal.withInitial(() -> Lane.INTERACTIVE);
+
+    private static final int BATCH_RETRIES = 3;
+    // Assumed until the first response says otherwise (authenticated REST limit)
+    private static final int DEFAULT_LIMIT = 5000;
+    // Re-check at least this often while waiting, e.g. for a window that has reset
+    private static final long MAX_PARK_MILLIS = 1000;
+
+    private final int interactiveReserve;
+    private final double batchPerSecond;
+    private final long interactiveMaxWaitMillis;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    // Budgets are per resource ("core", "graphql", ...). Guarded by lock.
+    private final Map<String, Budget> budgets = new HashMap<>();
+    private int waitingInteractive;
+    private int waitingBatch;
+
+    public GitHubRateLimiter(int interactiveReserve, double batchPerSecond, long interactiveMaxWaitMillis) {
+        this.interactiveReserve = interactiveReserve;
+        this.batchPerSecond = batchPerSecond;
+        this.interactiveMaxWaitMillis = interactiveMaxWaitMillis;
+    }
+
+    /**
+     * Runs {@code work} with every GitHub call it makes on this thread in the batch lane.
+     */
+    public static <T> T inBatchLane(Supplier<T> work) {
+        Lane previous = LANE.get();
+        LANE.set(Lane.BATCH);
+        try {
+            return work.get();
+        } finally {
+            LANE.set(previous);
+        }
+    }
+
+    public static void inBatchLane(Runnable work) {
+        inBatchLane(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * The lane GitHub calls made on this thread go through.
+     */
+    public static Lane currentLane() {
+        return LANE.get();
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        Lane lane = LANE.get();
+        String resource = resourceOf(request);
+        for (int attempt = 0; ; attempt++) {
+            try {
+                acquire(resource, lane);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for the GitHub rate limit");
+            }
+
+            ClientHttpResponse response = execution.execute(request, body);
+            boolean throttled = onResponse(resource, response.getStatusCode().value(), response.getHeaders());
+            if (!throttled || lane != Lane.BATCH || attempt == BATCH_RETRIES) {
+                return response;
+            }
+            response.close();
+            System.out.println("[GitHubRateLimiter] Throttled on " + request.getURI().getPath()
+                    + ", retrying batch call when allowed");
+        }
+    }
+
+    /**
+     * Blocks until a call of the lane may be sent and takes one token for it.
+     */
+    void acquire(String resource, Lane lane) throws InterruptedException {
+        lock.lock();
+        if (lane == Lane.INTERACTIVE) {
+            waitingInteractive++;
+        } else {
+            waitingBatch++;
+        }
+        try {
+            long deadline = System.currentTimeMillis() + interactiveMaxWaitMillis;
+            while (true) {
+                long now = System.currentTimeMillis();
+                Budget budget = budget(resource, now);
+                long waitUntil;
+
+                if (now < budget.pausedUntil) {
+                    waitUntil = budget.pausedUntil;
+                } else if (lane == Lane.INTERACTIVE) {
+                    if (budget.remaining > 0 || budget.resetAt == 0) {
+                        budget.remaining--;
+                        return;
+                    }
+                    waitUntil = budget.resetAt;
+                } else if (waitingInteractive > 0) {
+                    waitUntil = now + MAX_PARK_MILLIS; // woken when they are through
+                } else if (budget.remaining <= interactiveReserve && budget.resetAt > now) {
+                    waitUntil = budget.resetAt; // what is left belongs to interactive calls
+                } else {
+                    double rate = batchRate(budget, now);
+                    budget.batchTokens = Math.min(Math.max(1, rate),
+                            budget.batchTokens + (now - budget.batchRefilledAt) * rate / 1000.0);
+                    budget.batchRefilledAt = now;
+                    if (budget.batchTokens >= 1) {
+                        budget.batchTokens--;
+                        budget.remaining--;
+                        return;
+                    }
+                    waitUntil = now + (long) Math.ceil((1 - budget.batchTokens) * 1000.0 / rate);
+                }
+
+                if (lane == Lane.INTERACTIVE && waitUntil > deadline) {
+                    // Don't hold a user past the deadline; let GitHub answer for itself
+                    if (now >= deadline) {
+                        budget.remaining--;
+                        return;
+                    }
+                    waitUntil = deadline;
+                }
+                changed.await(Math.max(1, Math.min(waitUntil - now, MAX_PARK_MILLIS)), TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            if (lane == Lane.INTERACTIVE) {
+                waitingInteractive--;
+            } else {
+                waitingBatch--;
+            }
+            changed.signalAll();
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes the budget GitHub reported.
+     *
+     * @return true if GitHub refused the call because of a rate limit
+     */
+    boolean onResponse(String resource, int status, HttpHeaders headers) {
+        long now = System.currentTimeMillis();
+        lock.lock();
+        try {
+            String reportedResource = headers.getFirst("X-RateLimit-Resource");
+            Budget budget = budget(reportedResource != null ? reportedResource : resource, now);
+            Long limit = parseLong(headers.getFirst("X-RateLimit-Limit"));
+            Long remaining = parseLong(headers.getFirst("X-RateLimit-Remaining"));
+            Long reset = parseLong(headers.getFirst("X-RateLimit-Reset"));
+            if (limit != null) {
+                budget.limit = limit.intValue();
+            }
+            if (reset != null && remaining != null) {
+                long resetAt = reset * 1000;
+                // Responses of concurrent calls arrive out of order; within a window the
+                // lowest count is the latest, and our own in-flight calls are already taken
+                if (resetAt != budget.resetAt) {
+                    budget.resetAt = resetAt;
+                    budget.remaining = remaining.intValue();
+                } else {
+                    budget.remaining = Math.min(budget.remaining, remaining.intValue());
+                }
+            }
+
+            boolean throttled = status == HttpStatus.TOO_MANY_REQUESTS.value()
+                    || (status == HttpStatus.FORBIDDEN.value()
+                    && (headers.getFirst(HttpHeaders.RETRY_AFTER) != null || Long.valueOf(0).equals(remaining)));
+            if (throttled) {
+                Long retryAfter = parseLong(headers.getFirst(HttpHeaders.RETRY_AFTER));
+                long pausedUntil = retryAfter != null ? now + retryAfter * 1000
+                        : budget.resetAt > now ? budget.resetAt : now + 60_000; // GitHub's advice without headers
+                budget.pausedUntil = Math.max(budget.pausedUntil, pausedUntil);
+                System.err.println("[GitHubRateLimiter] GitHub throttled " + budget.resource
+                        + " calls; pausing for " + (budget.pausedUntil - now) / 1000 + "s");
+            }
+            changed.signalAll();
+            return throttled;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<RateLimitStatus> snapshot() {
+        lock.lock();
+        try {
+            long now = System.currentTimeMillis();
+            List<RateLimitStatus> result = new ArrayList<>();
+            for (Budget budget : budgets.values()) {
+                result.add(new RateLimitStatus(budget.resource, budget.limit, budget.remaining,
+                        budget.resetAt > 0 ? budget.resetAt / 1000 : 0,
+                        Math.max(0, budget.pausedUntil - now), waitingInteractive, waitingBatch));
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Batch calls per second: the configured pace, or slower if that would use up
+     * the share of the budget batch work may take before the window resets.
+     */
+    private double batchRate(Budget budget, long now) {
+        if (budget.resetAt <= now) {
+            return batchPerSecond;
+        }
+        double spread = (budget.remaining - interactiveReserve) * 1000.0 / (budget.resetAt - now);
+        return Math.max(0.01, Math.min(batchPerSecond, spread));
+    }
+
+    private Budget budget(String resource, long now) {
+        Budget budget = budgets.computeIfAbsent(resource, Budget::new);
+        if (budget.resetAt != 0 && now >= budget.resetAt) {
+            budget.remaining = budget.limit; // new window
+            budget.resetAt = 0;
+        }
+        return budget;
+    }
+
+    private static String resourceOf(HttpRequest request) {
+        return request.getURI().getPath().endsWith("/graphql") ? "graphql" : "core";
+    }
+
+    private static Long parseLong(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static final class Budget {
+        private final String resource;
+        private int limit = DEFAULT_LIMIT;
+        private int remaining = DEFAULT_LIMIT;
+        private long resetAt;          // epoch millis, 0 = unknown or passed
+        private long pausedUntil;      // set when GitHub throttled us
+        private double batchTokens = 1;
+        private long batchRefilledAt = System.currentTimeMillis();
+
+        Budget(String resource) {
+            this.resource = resource;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.tracker.demo.util;
+
+import com.tracker.demo.dto.HttpCallStats;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * RestTemplate interceptor that times every call, grouped by operation name.
+ *
+ * Keeps call and error counts, mean and max since startup, and percentiles over
+ * the most recent {@value #WINDOW} calls of each operation.
+ */
+public class HttpCallMetrics implements ClientHttpRequestInterceptor {
+
+    private static final int WINDOW = 1024;
+
+    private final Function<HttpRequest, String> operationName;
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+
+    public HttpCallMetrics(Function<HttpRequest, String> operationName) {
+        this.operationName = operationName;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            // 404 is an answer, not a failure; GitHub uses it for "file does not exist"
+            failed = response.getStatusCode().is5xxServerError();
+            return response;
+        } finally {
+            stats.computeIfAbsent(operationName.apply(request), Stats::new)
+                    .record(System.nanoTime() - start, failed);
+        }
+    }
+
+    public List<HttpCallStats> snapshot() {
+        List<HttpCallStats> result = new ArrayList<>();
+        for (Stats operation : stats.values()) {
+            result.add(operation.snapshot());
+        }
+        result.sort((a, b) -> a.getOperation().compareTo(b.getOperation()));
+        return result;
+    }
+
+    private static final class Stats {
+        private final String operation;
+        private final long[] recentNanos = new long[WINDOW];
+        private long calls;
+        private long failures;
+        private long totalNanos;
+        private long maxNanos;
+
+        Stats(String operation) {
+            this.operation = operation;
+        }
+
+        synchronized void record(long nanos, boolean failed) {
+            recentNanos[(int) (calls % WINDOW)] = nanos;
+            calls++;
+            if (failed) {
+                failures++;
+            }
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        synchronized HttpCallStats snapshot() {
+            long[] recent = Arrays.copyOf(recentNanos, (int) Math.min(calls, WINDOW));
+            Arrays.sort(recent);
+            return new HttpCallStats(operation, calls, failures,
+                    calls > 0 ? toMillis(totalNanos / calls) : 0,
+                    toMillis(percentile(recent, 0.50)),
+                    toMillis(percentile(recent, 0.99)),
+                    toMillis(maxNanos));
+        }
+
+        private static long percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            return sorted[Math.max(0, (int) Math.ceil(p * sorted.length) - 1)];
+        }
+
+        private static double toMillis(long nanos) {
+            return Math.round(nanos / 10_000.0) / 100.0;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.tracker.demo.util;
+
+/**
+ * Restores one device's readings to sequence order before they reach the detector.
+ *
+ * Readings that arrive ahead of a gap wait in a small window until the missing
+ * sequence shows up, or until {@link #expire} decides it is lost. Duplicates and
+ * readings older than what was already released are dropped. A sequence far behind
+ * the expected one means the device restarted its counter; a sequence more than a
+ * window ahead gives up on the gap. Both release what is waiting and resync.
+ *
+ * A quick reboot lands within the window, where a 1 could also be a late retry of the
+ * first reading. It only counts as a reboot when its timestamp shows a new boot: older
+ * than the first reading of the current run (the device clock restarted), or newer than
+ * every reading seen since (taken after them). A retry carries a timestamp from inside
+ * the run and is dropped as a duplicate.
+ *
+ * Readings without a sequence (0) pass straight through. Storage is preallocated,
+ * nothing allocates per reading. Owned by a single consumer thread.
+ */
+public class ReorderBuffer {
+
+    public static final int UNSEQUENCED = 0;
+    // Devices count from here after every boot
+    public static final int FIRST_SEQUENCE = 1;
+
+    private final int deviceId;
+    private final int mask;
+
+    private final boolean[] present;
+    private final long[] timestamps;
+    private final long[] rawValues;
+    private final double[] weights;
+
+    private boolean started;
+    private int next;                 // next sequence to release
+    private int buffered;             // readings waiting behind a gap
+    private long waitingSince;        // when the current gap started holding readings back
+    private long runStartTimestamp;   // device timestamp of the first reading since start or the last resync
+    private long latestTimestamp;     // newest device timestamp accepted since then
+
+    private long duplicates;
+    private long lost;
+    private long resets;
+
+    public ReorderBuffer(int deviceId, int requestedWindow) {
+        int size = 1;
+        while (size < requestedWindow) {
+            size <<= 1;
+        }
+        this.deviceId = deviceId;
+        this.mask = size - 1;
+        this.present = new boolean[size];
+        this.timestamps = new long[size];
+        this.rawValues = new long[size];
+        this.weights = new double[size];
+    }
+
+    /**
+     * Takes one reading and releases every reading that is now in order.
+     *
+     * @param now arrival time, epoch millis, used to time out gaps
+     */
+    public void accept(int sequence, long timestamp, long rawValue, double weight, long now,
+                       SensorRingBuffer.ReadingHandler out) {
+        if (sequence == UNSEQUENCED) {
+            out.onReading(deviceId, sequence, timestamp, rawValue, weight);
+            return;
+        }
+        if (!started) {
+            started = true;
+            next = sequence;
+            runStartTimestamp = timestamp;
+            latestTimestamp = timestamp;
+        }
+
+        // int subtraction, so wrap-around of the device counter is handled
+        int ahead = sequence - next;
+        if (ahead < 0) {
+            boolean rebooted = sequence == FIRST_SEQUENCE
+                    && (timestamp < runStartTimestamp || timestamp > latestTimestamp);
+            if (!rebooted && -ahead <= window()) {
+                duplicates++;   // already released or given up on
+                return;
+            }
+            resets++;
+            flush(out);
+            next = sequence;
+            ahead = 0;
+            runStartTimestamp = timestamp;
+            latestTimestamp = timestamp;
+        } else if (ahead >= window()) {
+            flush(out);
+            lost += sequence - next;
+            next = sequence;
+            ahead = 0;
+        }
+
+        latestTimestamp = Math.max(latestTimestamp, timestamp);
+        if (ahead == 0) {
+            next++;
+            out.onReading(deviceId, sequence, timestamp, rawValue, weight);
+            releaseReady(out);
+            return;
+        }
+
+        int slot = sequence & mask;
+        if (present[slot]) {
+            duplicates++;
+            return;
+        }
+        present[slot] = true;
+        timestamps[slot] = timestamp;
+        rawValues[slot] = rawValue;
+        weights[slot] = weight;
+        if (buffered++ == 0) {
+            waitingSince = now;
+        }
+    }
+
+    /**
+     * Gives up on a gap that has held readings back for {@code maxDelayMillis}.
+     */
+    public void expire(long now, long maxDelayMillis, SensorRingBuffer.ReadingHandler out) {
+        if (buffered == 0 || now - waitingSince < maxDelayMillis) {
+            return;
+        }
+        while (!present[next & mask]) {
+            next++;
+            lost++;
+        }
+        releaseReady(out);
+        waitingSince = now;
+    }
+
+    /**
+     * Releases everything waiting, in order, skipping the gaps.
+     */
+    public void flush(SensorRingBuffer.ReadingHandler out) {
+        while (buffered > 0) {
+            if (!present[next & mask]) {
+                next++;
+                lost++;
+                continue;
+            }
+            releaseReady(out);
+        }
+    }
+
+    public boolean hasWaiting() {
+        return buffered > 0;
+    }
+
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    public long getLost() {
+        return lost;
+    }
+
+    public long getResets() {
+        return resets;
+    }
+
+    private void releaseReady(SensorRingBuffer.ReadingHandler out) {
+        // State is updated before each hand-off, so a failing handler only loses its own reading
+        while (present[next & mask]) {
+            int sequence = next++;
+            int slot = sequence & mask;
+            present[slot] = false;
+            buffered--;
+            out.onReading(deviceId, sequence, timestamps[slot], rawValues[slot], weights[slot]);
+        }
+    }
+
+    private int window() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,86 @@
+package com.tracker.demo.util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Fixed-width binary frames sent by the ESP32 as application/octet-stream.
+ *
+ * Every frame is 24 bytes, little-endian (native order of the ESP32):
+ * <pre>
+ *   offset 0  int32   deviceId
+ *   offset 4  int32   sequence number
+ *   offset 8  int64   device timestamp (epoch millis, 0 = not supplied)
+ *   offset 16 int32   rawValue (HX711 counts, 24-bit signed)
+ *   offset 20 float32 weight in kg
+ * </pre>
+ *
+ * Fields are read with absolute gets so a batch can be walked in place
+ * without creating an object per reading.
+ */
+public final class SensorFrameCodec {
+
+    public static final int FRAME_SIZE = 24;
+
+    private static final int DEVICE_ID_OFFSET = 0;
+    private static final int SEQUENCE_OFFSET = 4;
+    private static final int TIMESTAMP_OFFSET = 8;
+    private static final int RAW_VALUE_OFFSET = 16;
+    private static final int WEIGHT_OFFSET = 20;
+
+    private SensorFrameCodec() {
+    }
+
+    /**
+     * Wraps the payload and switches it to the wire byte order.
+     */
+    public static ByteBuffer wrap(byte[] payload) {
+        return ByteBuffer.wrap(payload).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * True if the buffer holds a whole number of frames between position and limit.
+     */
+    public static boolean isWellFormed(ByteBuffer buffer) {
+        return buffer.remaining() % FRAME_SIZE == 0;
+    }
+
+    public static int frameCount(ByteBuffer buffer) {
+        return buffer.remaining() / FRAME_SIZE;
+    }
+
+    public static int deviceId(ByteBuffer buffer, int frame) {
+        return buffer.getInt(offset(buffer, frame) + DEVICE_ID_OFFSET);
+    }
+
+    public static int sequence(ByteBuffer buffer, int frame) {
+        return buffer.getInt(offset(buffer, frame) + SEQUENCE_OFFSET);
+    }
+
+    public static long timestamp(ByteBuffer buffer, int frame) {
+        return buffer.getLong(offset(buffer, frame) + TIMESTAMP_OFFSET);
+    }
+
+    public static int rawValue(ByteBuffer buffer, int frame) {
+        return buffer.getInt(offset(buffer, frame) + RAW_VALUE_OFFSET);
+    }
+
+    public static float weight(ByteBuffer buffer, int frame) {
+        return buffer.getFloat(offset(buffer, frame) + WEIGHT_OFFSET);
+    }
+
+    /**
+     * Appends one frame at the buffer's position (used by tests and the load generator).
+     */
+    public static void put(ByteBuffer buffer, int deviceId, int sequence, long timestamp, int rawValue, float weight) {
+        buffer.putInt(deviceId)
+                .putInt(sequence)
+                .putLong(timestamp)
+                .putInt(rawValue)
+                .putFloat(weight);
+    }
+
+    private static int offset(ByteBuffer buffer, int frame) {
+        return buffer.position() + frame * FRAME_SIZE;
+    }
+}
@@ -0,0 +1,177 @@
+package com.tracker.demo.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded, lock-free ring buffer of load-cell readings: many producers, one consumer.
+ *
+ * Readings are stored field by field in preallocated primitive arrays, so offering
+ * and draining never allocate. Producers claim a run of sequence numbers with a CAS
+ * on the tail, fill the slots, then publish each slot; the single consumer only reads
+ * slots whose publish marker matches the sequence it expects, so partially written
+ * slots are never seen.
+ *
+ * A batch is claimed all-or-nothing: if it doesn't fit, nothing is written and the
+ * caller can report backpressure. A producer that claimed slots and then decides not
+ * to use them (e.g. another buffer rejected the rest of its batch) gives them back
+ * with {@link #cancel}; the consumer skips them.
+ */
+public class SensorRingBuffer {
+
+    /**
+     * Receives readings on the consumer thread, in the order they were claimed.
+     */
+    public interface ReadingHandler {
+        void onReading(int deviceId, int deviceSequence, long timestamp, long rawValue, double weight);
+    }
+
+    private final int capacity;
+    private final int mask;
+
+    private final int[] deviceIds;
+    private final int[] deviceSequences;
+    private final long[] timestamps;
+    private final long[] rawValues;
+    private final double[] weights;
+    // true for slots given back with cancel(); the consumer skips them
+    private final boolean[] cancelled;
+
+    // published[slot] == sequence + 1 once the producer finished writing that sequence
+    private final AtomicLongArray published;
+
+    // next sequence to hand out to producers
+    private final AtomicLong tail = new AtomicLong();
+    // next sequence the consumer will read
+    private final AtomicLong head = new AtomicLong();
+
+    public SensorRingBuffer(int requestedCapacity) {
+        if (requestedCapacity < 1 || requestedCapacity > (1 << 30)) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30: " + requestedCapacity);
+        }
+        // Round up to a power of two so slots can be found with a mask
+        int size = 1;
+        while (size < requestedCapacity) {
+            size <<= 1;
+        }
+        this.capacity = size;
+        this.mask = capacity - 1;
+        this.deviceIds = new int[capacity];
+        this.deviceSequences = new int[capacity];
+        this.timestamps = new long[capacity];
+        this.rawValues = new long[capacity];
+        this.weights = new double[capacity];
+        this.cancelled = new boolean[capacity];
+        this.published = new AtomicLongArray(capacity);
+    }
+
+    /**
+     * Claims {@code count} consecutive slots.
+     *
+     * @return the first claimed sequence, or -1 if the buffer doesn't have room for all of them
+     */
+    public long tryClaim(int count) {
+        if (count > capacity) {
+            return -1;
+        }
+        while (true) {
+            long current = tail.get();
+            if (current + count - head.get() > capacity) {
+                return -1;
+            }
+            if (tail.compareAndSet(current, current + count)) {
+                return current;
+            }
+        }
+    }
+
+    /**
+     * Writes a reading into a claimed slot. Must be followed by {@link #publish(long)}.
+     */
+    public void set(long sequence, int deviceId, int deviceSequence, long timestamp, long rawValue, double weight) {
+        int slot = (int) sequence & mask;
+        deviceIds[slot] = deviceId;
+        deviceSequences[slot] = deviceSequence;
+        timestamps[slot] = timestamp;
+        rawValues[slot] = rawValue;
+        weights[slot] = weight;
+        cancelled[slot] = false;
+    }
+
+    /**
+     * Gives back {@code count} claimed slots starting at {@code first} without writing
+     * readings into them. The sequences can't be reused (later claims may already follow
+     * them), so they are published as empty and the consumer steps over them.
+     */
+    public void cancel(long first, int count) {
+        for (long sequence = first; sequence < first + count; sequence++) {
+            cancelled[(int) sequence & mask] = true;
+            publish(sequence);
+        }
+    }
+
+    /**
+     * Makes a written slot visible to the consumer.
+     */
+    public void publish(long sequence) {
+        published.setRelease((int) sequence & mask, sequence + 1);
+    }
+
+    /**
+     * Convenience for a single reading: claim, write and publish.
+     *
+     * @return false if the buffer is full
+     */
+    public boolean offer(int deviceId, int deviceSequence, long timestamp, long rawValue, double weight) {
+        long sequence = tryClaim(1);
+        if (sequence < 0) {
+            return false;
+        }
+        set(sequence, deviceId, deviceSequence, timestamp, rawValue, weight);
+        publish(sequence);
+        return true;
+    }
+
+    /**
+     * Hands up to {@code limit} published readings to the handler. Consumer thread only.
+     *
+     * @return number of readings drained
+     */
+    public int drain(ReadingHandler handler, int limit) {
+        long next = head.get();
+        int drained = 0;
+        while (drained < limit) {
+            int slot = (int) next & mask;
+            if (published.getAcquire(slot) != next + 1) {
+                break;
+            }
+            if (cancelled[slot]) {
+                next++;
+                head.setRelease(next);
+                continue;
+            }
+            int deviceId = deviceIds[slot];
+            int deviceSequence = deviceSequences[slot];
+            long timestamp = timestamps[slot];
+            long rawValue = rawValues[slot];
+            double weight = weights[slot];
+            next++;
+            drained++;
+            // Free the slot for producers before handling, so a failing handler can't wedge the buffer
+            head.setRelease(next);
+            handler.onReading(deviceId, deviceSequence, timestamp, rawValue, weight);
+        }
+        return drained;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Approximate number of claimed but not yet consumed readings.
+     */
+    public int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+}
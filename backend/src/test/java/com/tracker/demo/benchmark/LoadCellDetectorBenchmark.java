@@ -0,0 +1,69 @@
+package com.tracker.demo.benchmark;
+
+import com.tracker.demo.config.DetectorProperties;
+import com.tracker.demo.service.LoadCellService;
+import com.tracker.demo.service.detector.ExerciseDetector;
+import com.tracker.demo.service.detector.ExerciseDetectorFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one reading through each detector's hot path (idle scale, baseline updating),
+ * on its own and through LoadCellService.processWeightData, which the ingestion shards
+ * call per reading (device lookup, detector, live-state fields).
+ *
+ * Run with {@code mvn -Pbenchmark test -DskipTests}; the GC profiler reports
+ * gc.alloc.rate.norm, i.e. bytes allocated per reading, which should stay at ~0.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoadCellDetectorBenchmark {
+
+    private static final int TRACE_SIZE = 1 << 12;
+
+    @Param({"threshold", "hysteresis", "ewma", "cusum"})
+    private String type;
+
+    private ExerciseDetector detector;
+    private LoadCellService loadCellService;
+    private double[] trace;
+    private int next;
+
+    @Setup
+    public void setup() {
+        DetectorProperties properties = new DetectorProperties();
+        properties.setType(type);
+        detector = ExerciseDetectorFactory.create(properties);
+
+        // An idle trace never starts a session, so the accumulator and tracker aren't needed
+        ExerciseDetectorFactory factory = new ExerciseDetectorFactory();
+        ReflectionTestUtils.setField(factory, "detectorProperties", properties);
+        loadCellService = new LoadCellService();
+        ReflectionTestUtils.setField(loadCellService, "exerciseDetectorFactory", factory);
+
+        // Idle bar around -1 kg with sensor noise, well inside the 8 kg threshold
+        Random random = new Random(42);
+        trace = new double[TRACE_SIZE];
+        for (int i = 0; i < TRACE_SIZE; i++) {
+            trace[i] = -1.0 + random.nextGaussian() * 0.2;
+        }
+    }
+
+    @Benchmark
+    public ExerciseDetector.Transition onReading() {
+        return detector.onReading(trace[next++ & (TRACE_SIZE - 1)]);
+    }
+
+    @Benchmark
+    public void processWeightData() {
+        int i = next++;
+        loadCellService.processWeightData(0, i, trace[i & (TRACE_SIZE - 1)]);
+    }
+}
@@ -0,0 +1,71 @@
+package com.tracker.demo.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SensorDataConflationInterceptorTest {
+
+    private final List<Object> sent = new CopyOnWriteArrayList<>();
+    // The flusher sends through the channel, which runs the interceptor again like the real outbound channel
+    private final MessageChannel channel = (message, timeout) -> {
+        Message<?> passed = this.interceptor.preSend(message, this.channel);
+        if (passed != null) {
+            sent.add(passed.getPayload());
+        }
+        return true;
+    };
+
+    private SensorDataConflationInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        interceptor = new SensorDataConflationInterceptor();
+        ReflectionTestUtils.setField(interceptor, "maxFramesPerSecond", 10);
+        interceptor.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        interceptor.stop();
+    }
+
+    @Test
+    void devicesOnASharedSubscriptionKeepTheirOwnLatestFrame() throws InterruptedException {
+        channel.send(frame(1, "a1"));
+        channel.send(frame(2, "b1"));
+        // Within the interval: each device keeps only its latest
+        channel.send(frame(1, "a2"));
+        channel.send(frame(2, "b2"));
+        channel.send(frame(1, "a3"));
+        assertEquals(List.of("a1", "b1"), sent);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (sent.size() < 4 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(4, sent.size());
+        assertTrue(sent.containsAll(List.of("a3", "b2")), "held-back frames: " + sent.subList(2, sent.size()));
+    }
+
+    private static Message<String> frame(int deviceId, String payload) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination("/topic/sensor-data");
+        accessor.setSessionId("session");
+        accessor.setSubscriptionId("sub-0");
+        accessor.setNativeHeader(SensorDataConflationInterceptor.DEVICE_HEADER, String.valueOf(deviceId));
+        return MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+    }
+}
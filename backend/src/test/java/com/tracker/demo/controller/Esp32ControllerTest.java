@@ -0,0 +1,60 @@
+package com.tracker.demo.controller;
+
+import com.tracker.demo.service.LoadCellService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class Esp32ControllerTest {
+
+    private final LoadCellService loadCellService = mock(LoadCellService.class);
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        Esp32Controller controller = new Esp32Controller();
+        ReflectionTestUtils.setField(controller, "loadCellService", loadCellService);
+        mvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+        when(loadCellService.getSessionSummary(anyInt(), any(), any(), anyString())).thenCallRealMethod();
+    }
+
+    @Test
+    void sessionSummaryAcceptsDaysAndDateTimes() throws Exception {
+        when(loadCellService.getSessionSummary(anyInt(), any(), any(), eq("hour"))).thenReturn(List.of());
+
+        mvc.perform(get("/weight/sessions/summary")
+                        .param("start", "2025-01-01").param("end", "2025-01-01T12:00").param("per", "hour"))
+                .andExpect(status().isOk());
+        verify(loadCellService).getSessionSummary(0, LocalDateTime.of(2025, 1, 1, 0, 0),
+                LocalDateTime.of(2025, 1, 1, 12, 0), "hour");
+    }
+
+    @Test
+    void sessionSummaryRejectsAnUnknownBucket() throws Exception {
+        mvc.perform(get("/weight/sessions/summary")
+                        .param("start", "2025-01-01").param("end", "2025-02-01").param("per", "week"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void sessionSummaryRejectsUnparseableDates() throws Exception {
+        mvc.perform(get("/weight/sessions/summary")
+                        .param("start", "yesterday").param("end", "2025-02-01"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/weight/sessions/summary")
+                        .param("start", "2025-01-01").param("end", "2025-02-01T25:00"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(loadCellService);
+    }
+}
@@ -0,0 +1,374 @@
+package com.tracker.demo.loadgen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tracker.demo.util.SensorFrameCodec;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Simulates a fleet of ESP32 load cells against a locally running backend and
+ * measures how long a reading takes from the POST to the WebSocket push.
+ *
+ * Start the app, then run e.g.
+ * {@code mvn -Ploadgen test-compile exec:exec -Dloadgen.args="--devices=20 --rate=5000 --mode=binary"}
+ *
+ * Options (all --name=value): url (http://localhost:8080), devices (10), rate (total
+ * readings/s, 1000), duration (s, 30), warmup (s, 5), mode (data | batch | binary),
+ * batch (readings per batch request, 50), inflight (max concurrent requests, 64),
+ * deviceTopics (true subscribes to /topic/sensor-data/{id} instead of /topic/sensor-data).
+ *
+ * Each reading's rawValue carries its send time in microseconds since the generator
+ * started, so latency is measured with one clock. The server conflates pushes per
+ * subscription (websocket.sensor-data.max-fps), so only a sample of readings is
+ * delivered; every delivered one is measured.
+ *
+ * The simulated sets must also be detected as exercise: the run fails if the devices'
+ * exercise time today (/weight/live) did not grow although sets were sent.
+ */
+public class SensorLoadGenerator {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final long startNanos = System.nanoTime();
+
+    private final String baseUrl;
+    private final int devices;
+    private final int rate;
+    private final int durationSeconds;
+    private final int warmupSeconds;
+    private final String mode;
+    private final int batchSize;
+    private final boolean deviceTopics;
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+
+    private final Latencies httpLatencies = new Latencies();
+    private final Latencies deliveryLatencies = new Latencies();
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile boolean measuring;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        new SensorLoadGenerator(options).run();
+    }
+
+    public SensorLoadGenerator(Map<String, String> options) {
+        this.baseUrl = options.getOrDefault("url", "http://localhost:8080");
+        this.devices = Integer.parseInt(options.getOrDefault("devices", "10"));
+        this.rate = Integer.parseInt(options.getOrDefault("rate", "1000"));
+        this.durationSeconds = Integer.parseInt(options.getOrDefault("duration", "30"));
+        this.warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "5"));
+        this.mode = options.getOrDefault("mode", "data");
+        this.batchSize = "data".equals(mode) ? 1 : Integer.parseInt(options.getOrDefault("batch", "50"));
+        this.deviceTopics = Boolean.parseBoolean(options.getOrDefault("deviceTopics", "false"));
+        this.maxInFlight = Integer.parseInt(options.getOrDefault("inflight", "64"));
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    public void run() throws Exception {
+        WebSocketStompClient stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        String wsUrl = baseUrl.replaceFirst("^http", "ws") + "/ws/websocket";
+        StompSession session = stompClient.connectAsync(wsUrl, new StompSessionHandlerAdapter() {
+        }).get(10, TimeUnit.SECONDS);
+        if (deviceTopics) {
+            for (int id = 0; id < devices; id++) {
+                session.subscribe("/topic/sensor-data/" + id, new DeliveryHandler());
+            }
+        } else {
+            session.subscribe("/topic/sensor-data", new DeliveryHandler());
+        }
+
+        System.out.println("[LoadGen] " + devices + " devices, " + rate + " readings/s, mode=" + mode
+                + ", batch=" + batchSize + ", " + warmupSeconds + "s warmup + " + durationSeconds + "s against " + baseUrl);
+
+        DeviceTrace[] traces = new DeviceTrace[devices];
+        long[] todaySecondsBefore = new long[devices];
+        for (int id = 0; id < devices; id++) {
+            traces[id] = new DeviceTrace(id, (double) rate / devices);
+            todaySecondsBefore[id] = fetchTodaySeconds(id);
+        }
+
+        long runStart = System.nanoTime();
+        long measureStart = runStart + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long runEnd = measureStart + TimeUnit.SECONDS.toNanos(durationSeconds);
+        long sent = 0;
+        long measuredSent = 0;
+        int nextDevice = 0;
+        long nextReport = measureStart + TimeUnit.SECONDS.toNanos(5);
+
+        while (true) {
+            long now = System.nanoTime();
+            if (now >= runEnd) {
+                break;
+            }
+            if (!measuring && now >= measureStart) {
+                measuring = true;
+            }
+            // Readings due by now at the target rate; a slow server makes us fall behind, not burst
+            long due = (now - runStart) * rate / 1_000_000_000L;
+            if (sent + batchSize > due) {
+                LockSupport.parkNanos(100_000);
+                continue;
+            }
+            if (now >= nextReport) {
+                System.out.println("[LoadGen] accepted=" + accepted.get() + " rejected=" + rejected.get()
+                        + " failed=" + failed.get() + " delivered=" + deliveryLatencies.count());
+                nextReport += TimeUnit.SECONDS.toNanos(5);
+            }
+
+            inFlight.acquire();
+            HttpRequest request = buildRequest(traces, nextDevice);
+            nextDevice = (nextDevice + batchSize) % devices;
+            sent += batchSize;
+            if (measuring) {
+                measuredSent += batchSize;
+            }
+            long requestStart = System.nanoTime();
+            boolean measured = measuring;
+            http.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        inFlight.release();
+                        if (!measured) {
+                            return;
+                        }
+                        if (error != null) {
+                            failed.addAndGet(batchSize);
+                        } else if (response.statusCode() / 100 == 2) {
+                            accepted.addAndGet(batchSize);
+                            httpLatencies.add((System.nanoTime() - requestStart) / 1_000);
+                        } else if (response.statusCode() == 503) {
+                            rejected.addAndGet(batchSize);
+                        } else {
+                            failed.addAndGet(batchSize);
+                        }
+                    });
+        }
+        measuring = false;
+
+        // Let in-flight requests and pushes drain before reporting
+        inFlight.tryAcquire(maxInFlight, 10, TimeUnit.SECONDS);
+        Thread.sleep(1_000);
+        session.disconnect();
+        stompClient.stop();
+
+        long setSeconds = 0;
+        long detectedSeconds = 0;
+        int devicesWithSessions = 0;
+        for (int id = 0; id < devices; id++) {
+            setSeconds += traces[id].setSeconds();
+            long detected = fetchTodaySeconds(id) - todaySecondsBefore[id];
+            detectedSeconds += detected;
+            if (detected > 0) {
+                devicesWithSessions++;
+            }
+        }
+
+        System.out.println();
+        System.out.println("[LoadGen] Offered    " + measuredSent + " readings (" + measuredSent / Math.max(1, durationSeconds) + "/s)");
+        System.out.println("[LoadGen] Accepted   " + accepted.get() + " (" + accepted.get() / Math.max(1, durationSeconds) + "/s)"
+                + ", rejected (503) " + rejected.get() + ", failed " + failed.get());
+        System.out.println("[LoadGen] HTTP       " + httpLatencies.summary() + "  (per request, " + batchSize + " readings each)");
+        System.out.println("[LoadGen] WebSocket  " + deliveryLatencies.summary() + "  (ingest to delivery, " + deliveryLatencies.count() + " pushes)");
+        System.out.println("[LoadGen] Sessions   " + detectedSeconds + "s detected on " + devicesWithSessions + "/" + devices
+                + " devices, " + setSeconds + "s of sets sent");
+        if (setSeconds > 0 && detectedSeconds == 0) {
+            throw new IllegalStateException("Sets were sent but no exercise was detected; check the trace against loadcell.detector");
+        }
+    }
+
+    // Today's exercise seconds of the device, including a session in progress
+    private long fetchTodaySeconds(int deviceId) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/weight/live?deviceId=" + deviceId))
+                .timeout(Duration.ofSeconds(10))
+                .GET()
+                .build();
+        HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("/weight/live answered " + response.statusCode());
+        }
+        return MAPPER.readTree(response.body()).path("todaySeconds").asLong();
+    }
+
+    private HttpRequest buildRequest(DeviceTrace[] traces, int firstDevice) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder().timeout(Duration.ofSeconds(10));
+        if ("binary".equals(mode)) {
+            ByteBuffer frames = ByteBuffer.allocate(batchSize * SensorFrameCodec.FRAME_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < batchSize; i++) {
+                DeviceTrace trace = traces[(firstDevice + i) % devices];
+                SensorFrameCodec.put(frames, trace.deviceId, trace.nextSequence(), 0, (int) sentMicros(), (float) trace.next());
+            }
+            return builder.uri(URI.create(baseUrl + "/weight/batch"))
+                    .header("Content-Type", "application/octet-stream")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(frames.array()))
+                    .build();
+        }
+
+        StringBuilder json = new StringBuilder(batchSize * 80);
+        if ("batch".equals(mode)) {
+            json.append('[');
+        }
+        for (int i = 0; i < batchSize; i++) {
+            DeviceTrace trace = traces[(firstDevice + i) % devices];
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"deviceId\":").append(trace.deviceId)
+                    .append(",\"sequence\":").append(trace.nextSequence())
+                    .append(",\"rawValue\":").append(sentMicros())
+                    .append(",\"weight\":").append(trace.next())
+                    .append(",\"timestamp\":0}");
+        }
+        if ("batch".equals(mode)) {
+            json.append(']');
+        }
+        String path = "batch".equals(mode) ? "/weight/batch" : "/weight/data";
+        return builder.uri(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json.toString()))
+                .build();
+    }
+
+    // Fits the binary frame's int rawValue for runs of up to ~35 minutes
+    private long sentMicros() {
+        return (System.nanoTime() - startNanos) / 1_000;
+    }
+
+    private class DeliveryHandler implements StompFrameHandler {
+
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return byte[].class;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            long receivedMicros = sentMicros();
+            if (!measuring) {
+                return;
+            }
+            try {
+                JsonNode reading = MAPPER.readTree((byte[]) payload);
+                deliveryLatencies.add(receivedMicros - reading.path("rawValue").asLong());
+            } catch (Exception e) {
+                System.err.println("[LoadGen] Unreadable push: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Idle bar at -1 kg with sensor noise, and every 20–60 s a 10–30 s set at 15–40 kg.
+     * Load pulls the reading down, so sets are negative like on the real bar.
+     */
+    private static class DeviceTrace {
+        private final int deviceId;
+        private final double readingsPerSecond;
+        private final Random random;
+        private int sequence;
+        private long readings;
+        private long nextSetAt;
+        private long setEndsAt;
+        private double setWeight;
+        private long setReadings;
+
+        DeviceTrace(int deviceId, double readingsPerSecond) {
+            this.deviceId = deviceId;
+            this.readingsPerSecond = Math.max(1, readingsPerSecond);
+            this.random = new Random(deviceId);
+            this.nextSetAt = secondsToReadings(20 + random.nextInt(40));
+        }
+
+        synchronized int nextSequence() {
+            return ++sequence;
+        }
+
+        synchronized double next() {
+            readings++;
+            if (readings >= nextSetAt && readings >= setEndsAt) {
+                setWeight = -(15 + random.nextDouble() * 25);
+                setEndsAt = readings + secondsToReadings(10 + random.nextInt(20));
+                nextSetAt = setEndsAt + secondsToReadings(20 + random.nextInt(40));
+            }
+            if (readings < setEndsAt) {
+                setReadings++;
+                return setWeight + random.nextGaussian() * 2;
+            }
+            return -1.0 + random.nextGaussian() * 0.2;
+        }
+
+        synchronized long setSeconds() {
+            return (long) (setReadings / readingsPerSecond);
+        }
+
+        private long secondsToReadings(int seconds) {
+            return (long) (seconds * readingsPerSecond);
+        }
+    }
+
+    /**
+     * All samples in microseconds; sorted once for the report.
+     */
+    private static class Latencies {
+        private long[] values = new long[1 << 16];
+        private int size;
+
+        synchronized void add(long micros) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = micros;
+        }
+
+        synchronized int count() {
+            return size;
+        }
+
+        synchronized String summary() {
+            if (size == 0) {
+                return "no samples";
+            }
+            long[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            return String.format("p50=%.2fms p99=%.2fms p999=%.2fms max=%.2fms",
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                    sorted[sorted.length - 1] / 1000.0);
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.tracker.demo.service;
+
+import com.tracker.demo.sql.entity.LoadCellExercise;
+import com.tracker.demo.sql.entity.LoadCellJournalMark;
+import com.tracker.demo.sql.entity.LoadCellSession;
+import com.tracker.demo.sql.repository.LoadCellExerciseRepository;
+import com.tracker.demo.sql.repository.LoadCellJournalMarkRepository;
+import com.tracker.demo.sql.repository.LoadCellSessionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class DailyExerciseAccumulatorTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 2);
+
+    @TempDir
+    Path dir;
+
+    // What the mocked repositories hold, surviving "restarts" like the real DB would
+    private final Map<LocalDate, LoadCellSession> totals = new HashMap<>();
+    private final List<LoadCellExercise> exercises = new ArrayList<>();
+    private LoadCellJournalMark mark;
+
+    private LoadCellSessionRepository sessionRepository;
+    private LoadCellExerciseRepository exerciseRepository;
+    private LoadCellJournalMarkRepository markRepository;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        sessionRepository = mock(LoadCellSessionRepository.class);
+        when(sessionRepository.findByDeviceIdAndDate(anyInt(), any())).thenAnswer(inv -> totals.get(inv.getArgument(1)));
+        when(sessionRepository.save(any())).thenAnswer(inv -> {
+            LoadCellSession session = inv.getArgument(0);
+            totals.put(session.getDate(), session);
+            return session;
+        });
+
+        exerciseRepository = mock(LoadCellExerciseRepository.class);
+        when(exerciseRepository.saveAll(anyList())).thenAnswer(inv -> {
+            exercises.addAll(inv.getArgument(0));
+            return inv.getArgument(0);
+        });
+
+        markRepository = mock(LoadCellJournalMarkRepository.class);
+        when(markRepository.findById(LoadCellJournalMark.ID)).thenAnswer(inv -> Optional.ofNullable(mark));
+        when(markRepository.save(any())).thenAnswer(inv -> mark = inv.getArgument(0));
+
+        transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(inv -> {
+            ((Consumer<TransactionStatus>) inv.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    void unflushedSessionsAreReplayedAfterACrash() throws Exception {
+        DailyExerciseAccumulator accumulator = open();
+        record(accumulator, 9, 30);
+        record(accumulator, 10, 45);
+        // Crash: no flush, no close
+
+        DailyExerciseAccumulator restarted = open();
+        assertEquals(75, restarted.getUnflushedSeconds(0, DAY));
+        restarted.flush();
+
+        assertEquals(75, totals.get(DAY).getDurationSeconds());
+        assertEquals(2, exercises.size());
+        assertEquals(0, restarted.getUnflushedSeconds(0, DAY));
+    }
+
+    @Test
+    void crashBetweenCommitAndCompactionAppliesNothingTwice() throws Exception {
+        Path journal = dir.resolve("journal.log");
+        DailyExerciseAccumulator accumulator = open();
+        record(accumulator, 9, 30);
+        record(accumulator, 10, 45);
+        byte[] beforeCompaction = Files.readAllBytes(journal);
+        accumulator.flush();
+        record(accumulator, 11, 20);
+
+        // Crash right after the commit: the journal still holds the flushed entries
+        byte[] after = Files.readAllBytes(journal);
+        byte[] uncompacted = new byte[beforeCompaction.length + after.length];
+        System.arraycopy(beforeCompaction, 0, uncompacted, 0, beforeCompaction.length);
+        System.arraycopy(after, 0, uncompacted, beforeCompaction.length, after.length);
+        Files.write(journal, uncompacted);
+
+        DailyExerciseAccumulator restarted = open();
+        assertEquals(20, restarted.getUnflushedSeconds(0, DAY));
+        restarted.flush();
+
+        assertEquals(95, totals.get(DAY).getDurationSeconds());
+        assertEquals(3, exercises.size());
+        assertEquals(3, mark.getFlushedSequence());
+    }
+
+    @Test
+    void replayInsertsEachSessionRowOnce() throws Exception {
+        Path journal = dir.resolve("journal.log");
+        DailyExerciseAccumulator accumulator = open();
+        record(accumulator, 9, 30);
+        byte[] beforeCompaction = Files.readAllBytes(journal);
+        accumulator.flush();
+        record(accumulator, 10, 45);
+        byte[] second = Files.readAllBytes(journal);
+        accumulator.flush();
+
+        // Crash after the second commit, with the first flush's entry still in the journal too
+        byte[] uncompacted = new byte[beforeCompaction.length + second.length];
+        System.arraycopy(beforeCompaction, 0, uncompacted, 0, beforeCompaction.length);
+        System.arraycopy(second, 0, uncompacted, beforeCompaction.length, second.length);
+        Files.write(journal, uncompacted);
+
+        open().flush();
+
+        assertEquals(List.of(DAY.atTime(8, 59, 30), DAY.atTime(9, 59, 15)),
+                exercises.stream().map(LoadCellExercise::getStartTime).toList());
+        verify(exerciseRepository, times(2)).saveAll(anyList());
+    }
+
+    @Test
+    void sequenceNumbersContinueAboveTheMarkAfterCompaction() throws Exception {
+        DailyExerciseAccumulator accumulator = open();
+        record(accumulator, 9, 30);
+        accumulator.close();
+        assertEquals(0, Files.size(dir.resolve("journal.log")));
+
+        // Empty journal: new entries must still number above the stored mark
+        DailyExerciseAccumulator restarted = open();
+        record(restarted, 10, 45);
+        DailyExerciseAccumulator again = open();
+        assertEquals(45, again.getUnflushedSeconds(0, DAY));
+    }
+
+    @Test
+    void failedFlushKeepsSessionsForTheNextOne() throws Exception {
+        DailyExerciseAccumulator accumulator = open();
+        record(accumulator, 9, 30);
+        doThrow(new IllegalStateException("db down")).when(transactionTemplate).executeWithoutResult(any());
+        accumulator.flush();
+
+        assertNull(mark);
+        assertEquals(30, open().getUnflushedSeconds(0, DAY));
+        assertEquals(30, accumulator.getUnflushedSeconds(0, DAY));
+    }
+
+    @Test
+    void dayTotalReadOverlappedByAFlushIsReadAgain() throws Exception {
+        DailyExerciseAccumulator accumulator = open();
+        record(accumulator, 9, 30);
+
+        // The first read sees the DB before the flush but returns after it committed
+        CountDownLatch readStarted = new CountDownLatch(1);
+        CountDownLatch flushed = new CountDownLatch(1);
+        Thread main = Thread.currentThread();
+        boolean[] first = {true};
+        when(sessionRepository.findByDeviceIdAndDate(anyInt(), any())).thenAnswer(inv -> {
+            LoadCellSession before = totals.get(inv.<LocalDate>getArgument(1));
+            if (Thread.currentThread() != main && first[0]) {
+                first[0] = false;
+                readStarted.countDown();
+                assertTrue(flushed.await(5, TimeUnit.SECONDS));
+            }
+            return before;
+        });
+
+        CompletableFuture<DailyExerciseAccumulator.DayTotal> total =
+                CompletableFuture.supplyAsync(() -> accumulator.getDayTotal(0, DAY));
+        assertTrue(readStarted.await(5, TimeUnit.SECONDS));
+        accumulator.flush();
+        flushed.countDown();
+
+        // Trusting the stale row would drop the 30 s the flush moved out of 'pending'
+        assertEquals(30, total.get(5, TimeUnit.SECONDS).seconds());
+        verify(sessionRepository, times(3)).findByDeviceIdAndDate(0, DAY);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void dayTotalWaitsForARunningFlush() throws Exception {
+        DailyExerciseAccumulator accumulator = open();
+        record(accumulator, 9, 30);
+
+        CountDownLatch inTransaction = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        doAnswer(inv -> {
+            inTransaction.countDown();
+            assertTrue(commit.await(5, TimeUnit.SECONDS));
+            ((Consumer<TransactionStatus>) inv.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        CompletableFuture<Void> flush = CompletableFuture.runAsync(accumulator::flush);
+        assertTrue(inTransaction.await(5, TimeUnit.SECONDS));
+        CompletableFuture<DailyExerciseAccumulator.DayTotal> total =
+                CompletableFuture.supplyAsync(() -> accumulator.getDayTotal(0, DAY));
+        Thread.sleep(100);
+        assertFalse(total.isDone());
+
+        commit.countDown();
+        flush.get(5, TimeUnit.SECONDS);
+        assertEquals(30, total.get(5, TimeUnit.SECONDS).seconds());
+
+        // Later calls are served from memory and follow new sessions
+        record(accumulator, 10, 45);
+        assertEquals(75, accumulator.getDayTotal(0, DAY).seconds());
+    }
+
+    private DailyExerciseAccumulator open() throws Exception {
+        DailyExerciseAccumulator accumulator = new DailyExerciseAccumulator();
+        ReflectionTestUtils.setField(accumulator, "loadCellSessionRepository", sessionRepository);
+        ReflectionTestUtils.setField(accumulator, "loadCellExerciseRepository", exerciseRepository);
+        ReflectionTestUtils.setField(accumulator, "loadCellJournalMarkRepository", markRepository);
+        ReflectionTestUtils.setField(accumulator, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(accumulator, "journalPath", dir.resolve("journal.log").toString());
+        accumulator.open();
+        return accumulator;
+    }
+
+    private static void record(DailyExerciseAccumulator accumulator, int hour, long seconds) {
+        LocalDateTime end = DAY.atTime(hour, 0);
+        accumulator.record(0, end.minusSeconds(seconds), end, seconds);
+    }
+}
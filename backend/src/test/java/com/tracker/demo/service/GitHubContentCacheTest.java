@@ -0,0 +1,100 @@
+package com.tracker.demo.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GitHubContentCacheTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void entriesSurviveARestart() throws IOException {
+        GitHubContentCache cache = new GitHubContentCache(directory.toString(), 2000);
+        cache.load();
+        cache.put("2024-12/W52/2024-12-26.md", "- [x] Read\n", "\"abc123\"", "Thu, 26 Dec 2024 08:00:00 GMT");
+        cache.put("2024-12/Monthly.md", "- [ ] Plan\n", null, null);
+
+        GitHubContentCache restarted = new GitHubContentCache(directory.toString(), 2000);
+        restarted.load();
+
+        assertEquals(2, restarted.size());
+        GitHubContentCache.Entry entry = restarted.get("2024-12/W52/2024-12-26.md");
+        assertEquals("- [x] Read\n", entry.body());
+        assertEquals("\"abc123\"", entry.etag());
+        assertEquals("Thu, 26 Dec 2024 08:00:00 GMT", entry.lastModified());
+        assertNull(restarted.get("2024-12/Monthly.md").etag());
+    }
+
+    @Test
+    void removedEntriesStayRemoved() throws IOException {
+        GitHubContentCache cache = new GitHubContentCache(directory.toString(), 2000);
+        cache.load();
+        cache.put("a.md", "a", "\"1\"", null);
+        cache.remove("a.md");
+
+        GitHubContentCache restarted = new GitHubContentCache(directory.toString(), 2000);
+        restarted.load();
+        assertNull(restarted.get("a.md"));
+    }
+
+    @Test
+    void concurrentPutsOfOnePathLeaveACompleteEntry() throws Exception {
+        GitHubContentCache cache = new GitHubContentCache(directory.toString(), 2000);
+        cache.load();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> puts = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                String body = ("body " + i + "\n").repeat(1000);
+                puts.add(pool.submit(() -> cache.put("a.md", body, null, null)));
+            }
+            for (Future<?> put : puts) {
+                put.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        GitHubContentCache restarted = new GitHubContentCache(directory.toString(), 2000);
+        restarted.load();
+        String body = restarted.get("a.md").body();
+        assertEquals(body.substring(0, body.indexOf('\n') + 1).repeat(1000), body);
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.filter(file -> file.toString().endsWith(".tmp")).count());
+        }
+    }
+
+    @Test
+    void leastRecentlyUsedBlobsAreEvicted() throws IOException {
+        GitHubContentCache cache = new GitHubContentCache(directory.toString(), 2);
+        cache.load();
+        cache.put("notes.md", "n", "\"1\"", null);
+        cache.put(GitHubContentCache.BLOB_PREFIX + "aaa", "a", null, null);
+        cache.put(GitHubContentCache.BLOB_PREFIX + "bbb", "b", null, null);
+        cache.get(GitHubContentCache.BLOB_PREFIX + "aaa");
+        cache.put(GitHubContentCache.BLOB_PREFIX + "ccc", "c", null, null);
+
+        assertNull(cache.get(GitHubContentCache.BLOB_PREFIX + "bbb"));
+        assertNotNull(cache.get(GitHubContentCache.BLOB_PREFIX + "aaa"));
+        // Paths are not blobs and don't count against the bound
+        assertEquals(3, cache.size());
+
+        GitHubContentCache restarted = new GitHubContentCache(directory.toString(), 2);
+        restarted.load();
+        assertEquals(3, restarted.size());
+        assertNull(restarted.get(GitHubContentCache.BLOB_PREFIX + "bbb"));
+    }
+}
@@ -0,0 +1,118 @@
+package com.tracker.demo.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.client.ResponseCreator;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class GitHubServiceCommitTest {
+
+    private static final String REPO = "https://api.github.test/repos/owner/notes/";
+
+    @TempDir
+    Path cacheDir;
+
+    private GitHubService gitHubService;
+    private MockRestServiceServer server;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        RestTemplate restTemplate = new RestTemplate();
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+        GitHubContentCache cache = new GitHubContentCache(cacheDir.toString(), 2000);
+        cache.load();
+
+        gitHubService = new GitHubService();
+        ReflectionTestUtils.setField(gitHubService, "gitHubRestTemplate", restTemplate);
+        ReflectionTestUtils.setField(gitHubService, "contentCache", cache);
+        ReflectionTestUtils.setField(gitHubService, "apiBaseUrl", "https://api.github.test");
+        ReflectionTestUtils.setField(gitHubService, "owner", "owner");
+        ReflectionTestUtils.setField(gitHubService, "repo", "notes");
+        ReflectionTestUtils.setField(gitHubService, "branch", "main");
+        ReflectionTestUtils.setField(gitHubService, "githubToken", "token");
+    }
+
+    @Test
+    void writesSeveralFilesInOneCommit() {
+        expectHead("c1", "t1");
+        server.expect(once(), requestTo(REPO + "git/trees")).andExpect(method(HttpMethod.POST))
+                .andExpect(jsonPath("$.base_tree").value("t1"))
+                .andExpect(jsonPath("$.tree.length()").value(3))
+                .andExpect(jsonPath("$.tree[0].path").value("2025-03/W11/2025-03-14.md"))
+                .andExpect(jsonPath("$.tree[0].content").value("- [ ] Stretch\n"))
+                .andExpect(jsonPath("$.tree[2].sha").isEmpty())
+                .andRespond(json("{\"sha\":\"t2\"}"));
+        server.expect(once(), requestTo(REPO + "git/commits")).andExpect(method(HttpMethod.POST))
+                .andExpect(jsonPath("$.tree").value("t2"))
+                .andExpect(jsonPath("$.parents[0]").value("c1"))
+                .andRespond(json("{\"sha\":\"c2\"}"));
+        server.expect(once(), requestTo(REPO + "git/refs/heads/main")).andExpect(method(HttpMethod.PATCH))
+                .andExpect(jsonPath("$.sha").value("c2"))
+                .andExpect(jsonPath("$.force").value(false))
+                .andRespond(json("{\"ref\":\"refs/heads/main\"}"));
+
+        Map<String, String> changes = new LinkedHashMap<>();
+        changes.put("2025-03/W11/2025-03-14.md", "- [ ] Stretch\n");
+        changes.put("2025-03/W11/Weekly.md", "- [x] Run\n");
+        changes.put("2025-03/W11/2025-03-13.md", null);
+
+        assertEquals("c2", gitHubService.commitFiles(changes, "Update notes"));
+        server.verify();
+    }
+
+    @Test
+    void buildsOnTheLastCommitAndRebasesWhenTheBranchMoved() {
+        expectHead("c1", "t1");
+        expectCommit("t1", "c1", "t2", "c2");
+        server.expect(once(), requestTo(REPO + "git/refs/heads/main")).andRespond(json("{}"));
+        gitHubService.createOrUpdateFile("a.md", "a", "first");
+        server.verify();
+        server.reset();
+
+        // No head lookup: the previous commit is the parent. Someone pushed meanwhile though.
+        expectCommit("t2", "c2", "t3", "c3");
+        server.expect(once(), requestTo(REPO + "git/refs/heads/main"))
+                .andRespond(withStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+                        .contentType(MediaType.APPLICATION_JSON).body("{\"message\":\"Update is not a fast forward\"}"));
+        expectHead("c9", "t9");
+        expectCommit("t9", "c9", "t10", "c10");
+        server.expect(once(), requestTo(REPO + "git/refs/heads/main")).andRespond(json("{}"));
+
+        assertEquals("c10", gitHubService.commitFiles(Map.of("b.md", "b"), "second"));
+        server.verify();
+    }
+
+    private void expectHead(String commitSha, String treeSha) {
+        server.expect(once(), requestTo(REPO + "commits/main")).andExpect(method(HttpMethod.GET))
+                .andRespond(json("{\"sha\":\"" + commitSha + "\",\"commit\":{\"tree\":{\"sha\":\"" + treeSha + "\"}}}"));
+    }
+
+    private void expectCommit(String baseTree, String parent, String newTree, String newCommit) {
+        server.expect(once(), requestTo(REPO + "git/trees"))
+                .andExpect(jsonPath("$.base_tree").value(baseTree))
+                .andRespond(json("{\"sha\":\"" + newTree + "\"}"));
+        server.expect(once(), requestTo(REPO + "git/commits"))
+                .andExpect(jsonPath("$.parents[0]").value(parent))
+                .andRespond(json("{\"sha\":\"" + newCommit + "\"}"));
+    }
+
+    private static ResponseCreator json(String body) {
+        return withSuccess(body, MediaType.APPLICATION_JSON);
+    }
+}
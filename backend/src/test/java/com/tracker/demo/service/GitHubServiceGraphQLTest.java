@@ -0,0 +1,238 @@
+package com.tracker.demo.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.tracker.demo.util.GitHubRateLimiter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bulk reads against a local stub of the GitHub REST and GraphQL endpoints.
+ */
+class GitHubServiceGraphQLTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // What is on the branch: path -> {blob SHA, content}
+    private static final Map<String, String[]> FILES = Map.of(
+            "2025-03/W11/2025-03-14.md", new String[]{"b1", "- [ ] Stretch\n"},
+            "2025-03/W11/Weekly.md", new String[]{"b2", "- [x] Run 10k\n"},
+            "2025-03/Monthly.md", new String[]{"b3", "- [ ] Read a book\n"});
+
+    private static final List<String> PATHS = List.of("2025-03/W11/2025-03-14.md", "2025-03/W11/Weekly.md",
+            "2025-03/Monthly.md", "2025-03/W11/2025-03-15.md", "2025-03/W11/2025-03-16.md");
+
+    @TempDir
+    Path cacheDir;
+
+    private HttpServer server;
+    private GitHubService gitHubService;
+    private GitHubContentCache cache;
+    private final List<List<String>> graphqlQueries = Collections.synchronizedList(new ArrayList<>());
+    private volatile boolean treeAvailable = true;
+    // Holds GraphQL responses back while set
+    private volatile CountDownLatch graphqlGate;
+    // GraphQL budget reported in responses while set (reset an hour out)
+    private volatile Integer graphqlRemaining;
+    private final ExecutorService serverThreads = Executors.newCachedThreadPool();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/repos/owner/notes/commits/main", exchange ->
+                respond(exchange, treeAvailable ? 200 : 500, "c1"));
+        server.createContext("/repos/owner/notes/git/trees/c1", exchange -> {
+            List<Map<String, Object>> tree = new ArrayList<>();
+            FILES.forEach((path, blob) -> tree.add(Map.of("path", path, "type", "blob", "sha", blob[0])));
+            respond(exchange, 200, MAPPER.writeValueAsString(Map.of("sha", "t1", "truncated", false, "tree", tree)));
+        });
+        server.createContext("/graphql", this::graphql);
+        server.setExecutor(serverThreads);
+        server.start();
+
+        cache = new GitHubContentCache(cacheDir.toString(), 2000);
+        cache.load();
+        gitHubService = new GitHubService();
+        ReflectionTestUtils.setField(gitHubService, "gitHubRestTemplate", new RestTemplate());
+        ReflectionTestUtils.setField(gitHubService, "contentCache", cache);
+        ReflectionTestUtils.setField(gitHubService, "apiBaseUrl", "http://127.0.0.1:" + server.getAddress().getPort());
+        ReflectionTestUtils.setField(gitHubService, "graphqlUrl", "");
+        ReflectionTestUtils.setField(gitHubService, "graphqlBatchSize", 2);
+        ReflectionTestUtils.setField(gitHubService, "notFoundTtlMillis", 30_000L);
+        ReflectionTestUtils.setField(gitHubService, "owner", "owner");
+        ReflectionTestUtils.setField(gitHubService, "repo", "notes");
+        ReflectionTestUtils.setField(gitHubService, "branch", "main");
+        ReflectionTestUtils.setField(gitHubService, "githubToken", "token");
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    void readsOnlyWhatTheTreeHasAndTheCacheLacks() {
+        cache.put("blob/b3", "- [ ] Read a book\n", null, null);
+
+        Map<String, String> contents = gitHubService.getContents(PATHS);
+
+        assertEquals("- [ ] Stretch\n", contents.get("2025-03/W11/2025-03-14.md"));
+        assertEquals("- [x] Run 10k\n", contents.get("2025-03/W11/Weekly.md"));
+        assertEquals("- [ ] Read a book\n", contents.get("2025-03/Monthly.md"));
+        assertNull(contents.get("2025-03/W11/2025-03-15.md"));
+        // Days without a note and cached blobs cost nothing; the other two share one query
+        assertEquals(List.of(List.of("2025-03/W11/2025-03-14.md", "2025-03/W11/Weekly.md")), graphqlQueries);
+
+        // Fetched blobs are cached by SHA, so the same tree needs no query at all
+        gitHubService.getContents(PATHS);
+        assertEquals(1, graphqlQueries.size());
+    }
+
+    @Test
+    void queriesEverythingInChunksWithoutATree() {
+        treeAvailable = false;
+
+        Map<String, String> contents = gitHubService.getContents(PATHS);
+
+        assertEquals("- [ ] Read a book\n", contents.get("2025-03/Monthly.md"));
+        assertNull(contents.get("2025-03/W11/2025-03-16.md"));
+        assertEquals(3, graphqlQueries.size()); // 5 paths, 2 per query
+        assertEquals(5, graphqlQueries.stream().mapToInt(List::size).sum());
+
+        // The misses are remembered for a while
+        gitHubService.getContents(List.of("2025-03/W11/2025-03-15.md", "2025-03/W11/2025-03-16.md"));
+        assertEquals(3, graphqlQueries.size());
+    }
+
+    @Test
+    void concurrentBulkReadsOfTheSameChunkShareOneQuery() throws Exception {
+        treeAvailable = false;
+        graphqlGate = new CountDownLatch(1);
+        List<String> paths = PATHS.subList(0, 2);
+
+        CompletableFuture<Map<String, String>> first = CompletableFuture.supplyAsync(() -> gitHubService.getContents(paths));
+        while (graphqlQueries.isEmpty()) {
+            Thread.onSpinWait();
+        }
+        CompletableFuture<Map<String, String>> second = CompletableFuture.supplyAsync(() -> gitHubService.getContents(paths));
+        Thread.sleep(100); // let it join the running query
+        graphqlGate.countDown();
+
+        assertEquals("- [ ] Stretch\n", first.get(5, TimeUnit.SECONDS).get("2025-03/W11/2025-03-14.md"));
+        assertEquals(first.get(), second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, graphqlQueries.size());
+    }
+
+    @Test
+    void interactiveReadDoesNotJoinABatchQueryHeldBackByTheRateLimit() throws Exception {
+        treeAvailable = false;
+        GitHubRateLimiter limiter = new GitHubRateLimiter(100, 5, 1000);
+        RestTemplate restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(limiter);
+        ReflectionTestUtils.setField(gitHubService, "gitHubRestTemplate", restTemplate);
+
+        // Learn that only the interactive reserve is left until the window resets
+        graphqlRemaining = 50;
+        gitHubService.getContents(PATHS.subList(0, 2));
+        List<String> paths = PATHS.subList(2, 4);
+
+        ExecutorService batchThread = Executors.newSingleThreadExecutor();
+        try {
+            Future<Map<String, String>> batch = batchThread.submit(() ->
+                    GitHubRateLimiter.inBatchLane(() -> gitHubService.getContents(paths)));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (limiter.snapshot().stream().noneMatch(status -> status.getWaitingBatch() > 0)) {
+                assertTrue(System.nanoTime() < deadline, "batch query never reached the rate limiter");
+                Thread.sleep(10);
+            }
+
+            Map<String, String> contents = CompletableFuture.supplyAsync(() -> gitHubService.getContents(paths))
+                    .get(5, TimeUnit.SECONDS);
+            assertEquals("- [ ] Read a book\n", contents.get("2025-03/Monthly.md"));
+            assertFalse(batch.isDone());
+        } finally {
+            batchThread.shutdownNow();
+        }
+    }
+
+    private void graphql(HttpExchange exchange) throws IOException {
+        JsonNode request = MAPPER.readTree(exchange.getRequestBody());
+        JsonNode variables = request.path("variables");
+        assertEquals("owner", variables.path("owner").asText());
+        assertTrue(request.path("query").asText().contains("repository(owner: $owner, name: $name)"));
+
+        List<String> paths = new ArrayList<>();
+        Map<String, Object> repository = new LinkedHashMap<>();
+        for (int i = 0; variables.has("p" + i); i++) {
+            String path = variables.path("p" + i).asText().substring("main:".length());
+            paths.add(path);
+            String[] blob = FILES.get(path);
+            Map<String, Object> object = null;
+            if (blob != null) {
+                object = new HashMap<>();
+                object.put("oid", blob[0]);
+                object.put("text", blob[1]);
+                object.put("isTruncated", false);
+            }
+            repository.put("f" + i, object);
+        }
+        graphqlQueries.add(paths);
+        CountDownLatch gate = graphqlGate;
+        if (gate != null) {
+            try {
+                gate.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        Integer remaining = graphqlRemaining;
+        if (remaining != null) {
+            exchange.getResponseHeaders().set("X-RateLimit-Resource", "graphql");
+            exchange.getResponseHeaders().set("X-RateLimit-Remaining", remaining.toString());
+            exchange.getResponseHeaders().set("X-RateLimit-Reset",
+                    Long.toString(System.currentTimeMillis() / 1000 + 3600));
+        }
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("repository", repository);
+        respond(exchange, 200, MAPPER.writeValueAsString(Map.of("data", data)));
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type",
+                body.startsWith("{") ? "application/json" : "text/plain");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
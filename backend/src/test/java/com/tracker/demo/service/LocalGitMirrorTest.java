@@ -0,0 +1,104 @@
+package com.tracker.demo.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against a bare repository in a temp directory; no network involved.
+ */
+class LocalGitMirrorTest {
+
+    @TempDir
+    Path root;
+
+    private Path origin;
+    private Path author;
+
+    @BeforeEach
+    void createOrigin() throws Exception {
+        origin = root.resolve("origin.git");
+        author = root.resolve("author");
+        run(root, "git", "init", "--bare", "--initial-branch=main", origin.toString());
+        run(root, "git", "clone", origin.toString(), author.toString());
+        run(author, "git", "checkout", "-b", "main");
+        commit("2024-12/W52/2024-12-26.md", "- [ ] Read\n", "first note");
+    }
+
+    @Test
+    void readsNotesFromTheCloneAndFollowsTheBranch() throws Exception {
+        LocalGitMirror mirror = new LocalGitMirror(origin.toString(), "owner", "notes", "main",
+                root.resolve("mirror").toString(), "");
+        assertTrue(mirror.sync());
+
+        assertEquals("- [ ] Read\n", mirror.getContent("2024-12/W52/2024-12-26.md"));
+        assertNull(mirror.getContent("2024-12/W52/2024-12-27.md"));
+        assertNull(mirror.getContent("../origin.git/HEAD"), "paths outside the clone are not readable");
+
+        commit("2024-12/W52/2024-12-26.md", "- [x] Read\n", "done");
+        commit("2024-12/W52/2024-12-27.md", "- [ ] Write\n", "second note");
+        assertTrue(mirror.sync());
+
+        assertEquals("- [x] Read\n", mirror.getContent("2024-12/W52/2024-12-26.md"));
+        assertEquals("- [ ] Write\n", mirror.getContent("2024-12/W52/2024-12-27.md"));
+    }
+
+    @Test
+    void followsARewrittenBranch() throws Exception {
+        LocalGitMirror mirror = new LocalGitMirror(origin.toString(), "owner", "notes", "main",
+                root.resolve("mirror").toString(), "");
+        commit("2024-12/W52/2024-12-27.md", "- [ ] Write\n", "second note");
+        assertTrue(mirror.sync());
+
+        // Upstream drops the last commit and force-pushes a different one
+        run(author, "git", "reset", "--hard", "HEAD~1");
+        Path file = author.resolve("2024-12/W52/2024-12-28.md");
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "- [ ] Rest\n");
+        run(author, "git", "add", "2024-12/W52/2024-12-28.md");
+        run(author, "git", "-c", "user.name=test", "-c", "user.email=test@example.com", "commit", "-m", "rewritten");
+        run(author, "git", "push", "--force", "origin", "main");
+
+        assertTrue(mirror.sync());
+        assertNull(mirror.getContent("2024-12/W52/2024-12-27.md"));
+        assertEquals("- [ ] Rest\n", mirror.getContent("2024-12/W52/2024-12-28.md"));
+    }
+
+    @Test
+    void pushWebhookSyncsInTheBackground() throws Exception {
+        LocalGitMirror mirror = new LocalGitMirror(origin.toString(), "owner", "notes", "main",
+                root.resolve("mirror").toString(), "");
+        assertTrue(mirror.sync());
+        commit("2024-12/W52/2024-12-27.md", "- [ ] Write\n", "second note");
+
+        mirror.invalidate(List.of("2024-12/W52/2024-12-27.md"));
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (mirror.getContent("2024-12/W52/2024-12-27.md") == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals("- [ ] Write\n", mirror.getContent("2024-12/W52/2024-12-27.md"));
+        mirror.close();
+    }
+
+    private void commit(String path, String content, String message) throws Exception {
+        Path file = author.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+        run(author, "git", "add", path);
+        run(author, "git", "-c", "user.name=test", "-c", "user.email=test@example.com", "commit", "-m", message);
+        run(author, "git", "push", "origin", "main");
+    }
+
+    private static void run(Path directory, String... command) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(command).directory(directory.toFile()).redirectErrorStream(true).start();
+        String output = new String(process.getInputStream().readAllBytes());
+        assertEquals(0, process.waitFor(), String.join(" ", command) + ": " + output);
+    }
+}
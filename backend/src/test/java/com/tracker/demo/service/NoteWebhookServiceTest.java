@@ -0,0 +1,114 @@
+package com.tracker.demo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class NoteWebhookServiceTest {
+
+    private static final String SECRET = "It's a Secret to Everybody";
+
+    private GitHubService gitHubService;
+    private NoteContentSource mirror;
+    private DailyTaskService dailyTaskService;
+    private NoteWebhookService webhook;
+    private byte[] payload;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        gitHubService = mock(GitHubService.class);
+        mirror = mock(NoteContentSource.class);
+        dailyTaskService = mock(DailyTaskService.class);
+        webhook = new NoteWebhookService(gitHubService, mirror, dailyTaskService,
+                SECRET, "MykaelXiong", "personal-note", "main");
+        try (InputStream in = getClass().getResourceAsStream("/github/push-event.json")) {
+            payload = in.readAllBytes();
+        }
+    }
+
+    @Test
+    void acceptsOnlyTheMatchingSignature() throws Exception {
+        assertTrue(webhook.verifySignature(payload, sign(payload, SECRET)));
+
+        assertFalse(webhook.verifySignature(payload, sign(payload, "wrong secret")));
+        assertFalse(webhook.verifySignature(payload, null));
+        assertFalse(webhook.verifySignature(payload, "sha256=not-hex"));
+        byte[] tampered = payload.clone();
+        tampered[10] ^= 1;
+        assertFalse(webhook.verifySignature(tampered, sign(payload, SECRET)));
+    }
+
+    @Test
+    void rejectsEverythingWithoutASecret() throws Exception {
+        NoteWebhookService unconfigured = new NoteWebhookService(gitHubService, mirror, dailyTaskService,
+                "", "MykaelXiong", "personal-note", "main");
+        assertFalse(unconfigured.verifySignature(payload, sign(payload, SECRET)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void invalidatesEveryPathTouchedByThePush() throws Exception {
+        assertEquals(4, webhook.handlePush(payload));
+
+        List<String> expected = List.of("2025-03/W11/2025-03-14.md", "2025-03/W11/Weekly.md",
+                "2025-03/W11/2025-03-13.md", "2025-03/Monthly.md");
+        verify(gitHubService).invalidate(argThat((Collection<String> paths) -> paths.containsAll(expected) && paths.size() == 4));
+        verify(mirror).invalidate(argThat((Collection<String> paths) -> paths.containsAll(expected)));
+        verify(dailyTaskService).invalidate(argThat((Collection<String> paths) -> paths.containsAll(expected)));
+    }
+
+    @Test
+    void ignoresPushesToOtherBranches() throws Exception {
+        String other = new String(payload, StandardCharsets.UTF_8).replace("refs/heads/main", "refs/heads/draft");
+
+        assertEquals(0, webhook.handlePush(other.getBytes(StandardCharsets.UTF_8)));
+        verify(gitHubService, never()).invalidate(any());
+        verify(dailyTaskService, never()).invalidate(any());
+    }
+
+    @Test
+    void invalidatesEverythingAfterAForcePush() throws Exception {
+        ObjectNode event = (ObjectNode) new ObjectMapper().readTree(payload);
+        event.put("forced", true);
+
+        assertEquals(NoteWebhookService.ALL_PATHS, webhook.handlePush(new ObjectMapper().writeValueAsBytes(event)));
+        verify(gitHubService).invalidateAll();
+        verify(mirror).invalidateAll();
+        verify(dailyTaskService).invalidateAll();
+        verify(gitHubService, never()).invalidate(any());
+    }
+
+    @Test
+    void invalidatesEverythingWhenTheCommitListIsTruncated() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        ObjectNode event = (ObjectNode) mapper.readTree(payload);
+        ArrayNode commits = (ArrayNode) event.path("commits");
+        while (commits.size() < 20) {
+            commits.add(commits.get(0).deepCopy());
+        }
+
+        assertEquals(NoteWebhookService.ALL_PATHS, webhook.handlePush(mapper.writeValueAsBytes(event)));
+        verify(gitHubService).invalidateAll();
+        verify(dailyTaskService).invalidateAll();
+    }
+
+    private static String sign(byte[] body, String secret) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return "sha256=" + HexFormat.of().formatHex(mac.doFinal(body));
+    }
+}
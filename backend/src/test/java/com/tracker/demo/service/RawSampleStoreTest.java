@@ -0,0 +1,91 @@
+package com.tracker.demo.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RawSampleStoreTest {
+
+    private static final int DEVICE = 3;
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 14);
+
+    @TempDir
+    Path dir;
+
+    private RawSampleStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new RawSampleStore();
+        ReflectionTestUtils.setField(store, "enabled", true);
+        ReflectionTestUtils.setField(store, "storePath", dir.toString());
+    }
+
+    @Test
+    void findsReadingsThatArrivedOutOfOrder() throws Exception {
+        store.append(DEVICE, at(DAY, 10, 0, 30), 1, 1.0);
+        store.append(DEVICE, at(DAY, 10, 1, 0), 2, 2.0);
+        store.append(DEVICE, at(DAY, 10, 0, 10), 3, 3.0); // late retry
+
+        assertEquals(List.of(3L), scan(at(DAY, 10, 0, 0), at(DAY, 10, 0, 20)));
+        assertEquals(List.of(1L, 2L, 3L), scan(at(DAY, 0, 0, 0), at(DAY.plusDays(1), 0, 0, 0)));
+    }
+
+    @Test
+    void writesLateReadingsIntoTheirOwnDay() throws Exception {
+        LocalDate yesterday = DAY.minusDays(1);
+        LocalDate lastWeek = DAY.minusDays(7);
+        store.append(DEVICE, at(DAY, 8, 0, 0), 1, 1.0);
+        store.append(DEVICE, at(yesterday, 23, 59, 0), 2, 2.0);
+        store.append(DEVICE, at(DAY, 8, 0, 1), 3, 3.0);
+        store.append(DEVICE, at(lastWeek, 12, 0, 0), 4, 4.0);
+        store.append(DEVICE, at(DAY, 8, 0, 2), 5, 5.0);
+
+        assertEquals(List.of(1L, 3L, 5L), scan(at(DAY, 0, 0, 0), at(DAY.plusDays(1), 0, 0, 0)));
+        assertEquals(List.of(2L), scan(at(yesterday, 0, 0, 0), at(DAY, 0, 0, 0)));
+        assertEquals(List.of(4L), scan(at(lastWeek, 0, 0, 0), at(lastWeek.plusDays(1), 0, 0, 0)));
+        assertTrue(Files.exists(dir.resolve("device-" + DEVICE).resolve(yesterday + ".seg")));
+    }
+
+    @Test
+    void scanKeepsReadingWhileTheWriterMovesOn() throws Exception {
+        for (int second = 0; second < 10; second++) {
+            store.append(DEVICE, at(DAY, 9, 0, second), second, second);
+        }
+
+        List<Long> seen = new ArrayList<>();
+        store.scan(DEVICE, at(DAY, 0, 0, 0), at(DAY.plusDays(1), 0, 0, 0), (timestamp, rawValue, weight) -> {
+            if (seen.isEmpty()) {
+                // Two days later: the writer closes this day's segment under the scan
+                store.append(DEVICE, at(DAY.plusDays(2), 9, 0, 0), 99, 99.0);
+            }
+            seen.add(rawValue);
+            return true;
+        });
+
+        assertEquals(10, seen.size());
+        // Closed for writing now, still readable from disk
+        assertEquals(10, scan(at(DAY, 0, 0, 0), at(DAY.plusDays(1), 0, 0, 0)).size());
+    }
+
+    private List<Long> scan(long from, long to) throws Exception {
+        List<Long> rawValues = new ArrayList<>();
+        store.scan(DEVICE, from, to, (timestamp, rawValue, weight) -> rawValues.add(rawValue));
+        return rawValues;
+    }
+
+    private static long at(LocalDate day, int hour, int minute, int second) {
+        return day.atTime(hour, minute, second).atZone(ZONE).toInstant().toEpochMilli();
+    }
+}
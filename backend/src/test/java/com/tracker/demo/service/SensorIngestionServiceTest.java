@@ -0,0 +1,75 @@
+package com.tracker.demo.service;
+
+import com.tracker.demo.dto.SensorData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class SensorIngestionServiceTest {
+
+    private final LoadCellService loadCellService = mock(LoadCellService.class);
+    private SensorIngestionService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new SensorIngestionService();
+        ReflectionTestUtils.setField(service, "loadCellService", loadCellService);
+        ReflectionTestUtils.setField(service, "webSocketService", mock(WebSocketService.class));
+        ReflectionTestUtils.setField(service, "rawSampleStore", mock(RawSampleStore.class));
+        ReflectionTestUtils.setField(service, "weightRollupService", mock(WeightRollupService.class));
+        ReflectionTestUtils.setField(service, "bufferSize", 4);
+        ReflectionTestUtils.setField(service, "shardCount", 1);
+        ReflectionTestUtils.setField(service, "reorderWindow", 64);
+        ReflectionTestUtils.setField(service, "reorderMaxDelayMillis", 200L);
+        service.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        service.stop();
+    }
+
+    @Test
+    void batchLargerThanTheBufferIsRefusedNotBackpressured() {
+        assertThrows(IllegalArgumentException.class, () -> service.ingestBatch(readings(5)));
+        // Nothing was claimed, so a batch that fits still goes through
+        assertTrue(service.ingestBatch(readings(4)));
+        verify(loadCellService, timeout(1000).times(4)).processWeightData(eq(0), anyLong(), anyDouble());
+    }
+
+    @Test
+    void idleConsumerIsWokenByNewReadings() throws InterruptedException {
+        // Long enough for the idle park to have grown to its cap
+        Thread.sleep(500);
+        long start = System.nanoTime();
+        assertTrue(service.ingest(reading(1)));
+        verify(loadCellService, timeout(1000)).processWeightData(eq(0), anyLong(), anyDouble());
+        assertTrue(System.nanoTime() - start < 40_000_000L, "reading waited out the consumer's park");
+    }
+
+    private static List<SensorData> readings(int count) {
+        List<SensorData> readings = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            readings.add(reading(i));
+        }
+        return readings;
+    }
+
+    private static SensorData reading(int sequence) {
+        SensorData sensorData = new SensorData();
+        sensorData.setSequence(sequence);
+        sensorData.setTimestamp(1_000L * sequence);
+        sensorData.setWeight(-1.0);
+        return sensorData;
+    }
+}
@@ -0,0 +1,78 @@
+package com.tracker.demo.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WeightRollupServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private WeightRollupService rollups;
+
+    @BeforeEach
+    void setUp() {
+        rollups = newService();
+    }
+
+    @Test
+    void readingAnUnknownDeviceCreatesNothing() throws Exception {
+        long now = System.currentTimeMillis();
+
+        assertTrue(rollups.getSeries(42, now - 60_000, now, WeightRollupService.Resolution.SECOND).isEmpty());
+        try (var files = Files.list(dir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void seriesWrittenBeforeARestartAreStillReadable() {
+        long now = System.currentTimeMillis();
+        rollups.add(7, now - 2_000, -20.0);
+        rollups.add(7, now - 1_000, -22.0);
+        assertEquals(2, rollups.getSeries(7, now - 60_000, now, WeightRollupService.Resolution.SECOND).size());
+        rollups.flush();
+
+        WeightRollupService restarted = newService();
+        assertEquals(2, restarted.getSeries(7, now - 60_000, now, WeightRollupService.Resolution.SECOND).size());
+    }
+
+    @Test
+    void readingsALapBehindDoNotWipeCurrentBuckets() {
+        long now = System.currentTimeMillis();
+        long lap = 86_400_000L;
+        rollups.add(7, now, -20.0);
+        // Same slot of the 1 s ring, one day older
+        rollups.add(7, now - lap, -99.0);
+        // Late but still within the ring
+        rollups.add(7, now - 5_000, -21.0);
+
+        var points = rollups.getSeries(7, now - 60_000, now + 1, WeightRollupService.Resolution.SECOND);
+        assertEquals(2, points.size());
+        assertEquals(-20.0, points.get(1).getMin());
+        assertEquals(1, points.get(1).getCount());
+        rollups.flush();
+
+        // The newest bucket is recovered from the mapped file
+        WeightRollupService restarted = newService();
+        restarted.add(7, now - lap, -99.0);
+        assertEquals(points.size(),
+                restarted.getSeries(7, now - 60_000, now + 1, WeightRollupService.Resolution.SECOND).size());
+        assertEquals(-20.0, restarted.getSeries(7, now - 1_000, now + 1, WeightRollupService.Resolution.SECOND)
+                .get(0).getMin());
+    }
+
+    private WeightRollupService newService() {
+        WeightRollupService service = new WeightRollupService();
+        ReflectionTestUtils.setField(service, "persistent", true);
+        ReflectionTestUtils.setField(service, "storePath", dir.toString());
+        return service;
+    }
+}
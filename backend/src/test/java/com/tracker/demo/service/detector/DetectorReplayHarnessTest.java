@@ -0,0 +1,60 @@
+package com.tracker.demo.service.detector;
+
+import com.tracker.demo.dto.ReplayReport;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DetectorReplayHarnessTest {
+
+    private static final long T0 = 1_700_000_000_000L;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void reportsSessionsAtTheirRecordedTimes() throws Exception {
+        // One reading per second: a set from reading 20 to 30, a second one left open at the end
+        double[] trace = ExerciseDetectorTest.trace(20, -1.0, 10, -15.0, 15, -1.0, 5, -15.0);
+        ReplayReport report = DetectorReplayHarness.replay(new ThresholdDetector(8.0, 10, 1, 1), "threshold",
+                visitor -> {
+                    for (int i = 0; i < trace.length; i++) {
+                        visitor.visit(T0 + i * 1000L, 0, trace[i]);
+                    }
+                });
+
+        assertEquals("threshold", report.getDetectorType());
+        assertEquals(trace.length, report.getSamples());
+        assertEquals(1, report.getSessions().size());
+        ReplayReport.DetectedSession session = report.getSessions().get(0);
+        assertEquals(T0 + 20_000, session.getStart());
+        assertEquals(T0 + 30_000, session.getEnd());
+        assertEquals(10, session.getSeconds());
+        assertEquals(10, report.getTotalSessionSeconds());
+        assertTrue(report.getSamplesPerSecond() > 0);
+    }
+
+    @Test
+    void readsCsvFilesFromDirectoriesInOrder() throws Exception {
+        Path device = Files.createDirectories(dir.resolve("device-0"));
+        Files.write(device.resolve("2024-01-01.csv"), List.of("timestamp,weight",
+                T0 + ",-1.0", (T0 + 1000) + ",-1.0", (T0 + 2000) + ",-1.0", (T0 + 3000) + ",-15.0"));
+        Files.write(device.resolve("2024-01-02.csv"), List.of("", "   ", ",-15.0", "  ,-15.0",
+                (T0 + 8000) + ",-1.0"));
+        Files.write(device.resolve("notes.txt"), List.of("ignored"));
+
+        ReplayReport report = DetectorReplayHarness.replay(new ThresholdDetector(8.0, 10, 1, 1), "threshold",
+                DetectorReplayHarness.filesSource(List.of(dir)));
+
+        assertEquals(5, report.getSamples());
+        assertEquals(1, report.getSessions().size());
+        assertEquals(T0 + 3000, report.getSessions().get(0).getStart());
+        assertEquals(T0 + 8000, report.getSessions().get(0).getEnd());
+        assertEquals(5, report.getTotalSessionSeconds());
+    }
+}
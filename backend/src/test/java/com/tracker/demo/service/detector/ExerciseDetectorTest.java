@@ -0,0 +1,119 @@
+package com.tracker.demo.service.detector;
+
+import com.tracker.demo.config.DetectorProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExerciseDetectorTest {
+
+    // Idle bar at -1 kg, a set at -15 kg (heavier reads more negative)
+    static final double[] SET = trace(20, -1.0, 10, -15.0, 15, -1.0);
+    // Grip shifts mid-set: the load drops between the stop and start thresholds
+    static final double[] WOBBLE = trace(20, -1.0, 5, -15.0, 5, -8.0, 5, -15.0, 15, -1.0);
+    // One noisy reading
+    static final double[] SPIKE = trace(20, -1.0, 1, -15.0, 15, -1.0);
+
+    static Stream<Arguments> cases() {
+        Supplier<ExerciseDetector> threshold = () -> new ThresholdDetector(8.0, 10, 1, 1);
+        Supplier<ExerciseDetector> hysteresis = () -> new HysteresisDetector(8.0, 4.0, 10, 1, 1);
+        Supplier<ExerciseDetector> ewma = () -> new EwmaDetector(8.0, 4.0, 0.5, 0.02);
+        Supplier<ExerciseDetector> cusum = () -> new CusumDetector(2.0, 20.0, 10);
+        return Stream.of(
+                // detector, trace, transitions as "<STARTED|STOPPED>@<reading index>"
+                Arguments.of("threshold/set", threshold, SET, List.of("STARTED@20", "STOPPED@30")),
+                Arguments.of("threshold/wobble", threshold, WOBBLE, List.of("STARTED@20", "STOPPED@25", "STARTED@30", "STOPPED@35")),
+                Arguments.of("threshold/spike", threshold, SPIKE, List.of("STARTED@20", "STOPPED@21")),
+
+                Arguments.of("hysteresis/set", hysteresis, SET, List.of("STARTED@20", "STOPPED@30")),
+                Arguments.of("hysteresis/wobble", hysteresis, WOBBLE, List.of("STARTED@20", "STOPPED@35")),
+                Arguments.of("hysteresis/spike", hysteresis, SPIKE, List.of("STARTED@20", "STOPPED@21")),
+
+                // The smoothed signal needs a second loaded reading, and a second idle one to stop
+                Arguments.of("ewma/set", ewma, SET, List.of("STARTED@21", "STOPPED@31")),
+                Arguments.of("ewma/wobble", ewma, WOBBLE, List.of("STARTED@21", "STOPPED@36")),
+                Arguments.of("ewma/spike", ewma, SPIKE, List.of()),
+
+                // Evidence accumulates: 2 loaded readings to start, 6 idle ones to stop
+                Arguments.of("cusum/set", cusum, SET, List.of("STARTED@21", "STOPPED@35")),
+                Arguments.of("cusum/wobble", cusum, WOBBLE, List.of("STARTED@21", "STOPPED@40")),
+                Arguments.of("cusum/spike", cusum, SPIKE, List.of())
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("cases")
+    void detectsTheExpectedTransitions(String name, Supplier<ExerciseDetector> detector, double[] trace,
+                                       List<String> expected) {
+        assertEquals(expected, transitions(detector.get(), trace));
+    }
+
+    @Test
+    void ewmaStopsAtTheConfiguredStopThreshold() {
+        // Settles 5 kg below baseline: within a 6 kg stop threshold, still loaded for a 4 kg one
+        double[] trace = trace(20, -1.0, 5, -15.0, 10, -6.0);
+        assertEquals(List.of("STARTED@20", "STOPPED@25"), transitions(new EwmaDetector(8.0, 6.0, 1.0, 0.02), trace));
+        assertEquals(List.of("STARTED@20"), transitions(new EwmaDetector(8.0, 4.0, 1.0, 0.02), trace));
+    }
+
+    @Test
+    void factoryPassesTheStopThresholdToEwma() {
+        DetectorProperties properties = new DetectorProperties();
+        properties.setType("ewma");
+        properties.setStopThreshold(6.0);
+        properties.setSignalAlpha(1.0);
+
+        assertEquals(List.of("STARTED@20", "STOPPED@25"),
+                transitions(ExerciseDetectorFactory.create(properties), trace(20, -1.0, 5, -15.0, 10, -6.0)));
+    }
+
+    @Test
+    void factoryRejectsUnknownTypes() {
+        DetectorProperties properties = new DetectorProperties();
+        properties.setType("magic");
+        assertThrows(IllegalArgumentException.class, () -> ExerciseDetectorFactory.create(properties));
+    }
+
+    @Test
+    void factoryRejectsAnUnknownConfiguredTypeAtStartup() {
+        DetectorProperties properties = new DetectorProperties();
+        properties.setType("hysterisis");
+        ExerciseDetectorFactory factory = new ExerciseDetectorFactory();
+        ReflectionTestUtils.setField(factory, "detectorProperties", properties);
+
+        assertThrows(IllegalArgumentException.class, factory::validate);
+    }
+
+    static List<String> transitions(ExerciseDetector detector, double[] trace) {
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < trace.length; i++) {
+            ExerciseDetector.Transition transition = detector.onReading(trace[i]);
+            if (transition != ExerciseDetector.Transition.NONE) {
+                result.add(transition + "@" + i);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Builds a trace from (count, weight) runs.
+     */
+    static double[] trace(Object... runs) {
+        List<Double> readings = new ArrayList<>();
+        for (int i = 0; i < runs.length; i += 2) {
+            for (int n = 0; n < (Integer) runs[i]; n++) {
+                readings.add((Double) runs[i + 1]);
+            }
+        }
+        return readings.stream().mapToDouble(Double::doubleValue).toArray();
+    }
+}
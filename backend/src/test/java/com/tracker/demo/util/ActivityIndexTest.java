@@ -0,0 +1,50 @@
+package com.tracker.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActivityIndexTest {
+
+    private static final long DAY = 86_400;
+
+    @Test
+    void sumsOverlapWithAnyRange() {
+        ActivityIndex index = new ActivityIndex(3);
+        long base = 20_000 * DAY;
+        index.add(base + 100, base + 160);
+        index.add(base + 150, base + 200);
+
+        assertEquals(110, index.sum(base, base + DAY));
+        assertEquals(30, index.sum(base + 140, base + 160), "overlapping sessions both count");
+        assertEquals(0, index.sum(base + 200, base + 300));
+        assertEquals(10, index.sum(base + 190, base + 250));
+    }
+
+    @Test
+    void sessionsSpanningMidnightAreSplitAcrossDays() {
+        ActivityIndex index = new ActivityIndex(3);
+        long midnight = 20_001 * DAY;
+        index.add(midnight - 30, midnight + 45);
+
+        assertEquals(75, index.sum(midnight - DAY, midnight + DAY));
+        assertEquals(30, index.sum(midnight - DAY, midnight));
+        assertEquals(45, index.sum(midnight, midnight + 60));
+        // Last second of the day
+        assertEquals(1, index.sum(midnight - 1, midnight));
+    }
+
+    @Test
+    void dropsDaysOutsideRetention() {
+        ActivityIndex index = new ActivityIndex(2);
+        long day0 = 20_000 * DAY;
+        index.add(day0 + 10, day0 + 20);
+        index.add(day0 + 2 * DAY + 10, day0 + 2 * DAY + 15);  // reuses day0's slot
+
+        assertEquals(0, index.sum(day0, day0 + DAY));
+        assertEquals(5, index.sum(day0, day0 + 3 * DAY));
+
+        index.add(day0 + 10, day0 + 20);                       // too old now, ignored
+        assertEquals(5, index.sum(day0, day0 + 3 * DAY));
+    }
+}
@@ -0,0 +1,85 @@
+package com.tracker.demo.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GitHubRateLimiterTest {
+
+    @Test
+    void batchCallsLeaveTheReserveToInteractiveOnes() throws Exception {
+        GitHubRateLimiter limiter = new GitHubRateLimiter(100, 1000, 1000);
+        assertFalse(limiter.onResponse("core", 200, budget(100, 3600)));
+
+        CompletableFuture<Void> batch = CompletableFuture.runAsync(() -> acquire(limiter, GitHubRateLimiter.Lane.BATCH));
+        assertThrows(TimeoutException.class, () -> batch.get(300, TimeUnit.MILLISECONDS));
+
+        long start = System.nanoTime();
+        limiter.acquire("core", GitHubRateLimiter.Lane.INTERACTIVE);
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(100));
+        assertEquals(99, limiter.snapshot().get(0).getRemaining());
+
+        // A new window with plenty of budget releases the batch call
+        limiter.onResponse("core", 200, budget(4000, 7200));
+        batch.get(2, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void batchCallsArePaced() throws Exception {
+        GitHubRateLimiter limiter = new GitHubRateLimiter(100, 20, 1000);
+        limiter.onResponse("core", 200, budget(4000, 3600));
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 6; i++) {
+            limiter.acquire("core", GitHubRateLimiter.Lane.BATCH);
+        }
+        // One token up front, then 20 per second
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(200));
+    }
+
+    @Test
+    void throttlingPausesCallsUntilRetryAfter() throws Exception {
+        GitHubRateLimiter limiter = new GitHubRateLimiter(100, 1000, 5000);
+        HttpHeaders headers = budget(3000, 3600);
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+        assertTrue(limiter.onResponse("core", 403, headers));
+        assertTrue(limiter.snapshot().get(0).getPausedMillis() > 0);
+
+        long start = System.nanoTime();
+        limiter.acquire("core", GitHubRateLimiter.Lane.INTERACTIVE);
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(900));
+    }
+
+    @Test
+    void interactiveCallsWaitNoLongerThanTheirDeadline() throws Exception {
+        GitHubRateLimiter limiter = new GitHubRateLimiter(100, 1000, 200);
+        limiter.onResponse("core", 200, budget(0, 3600));
+
+        long start = System.nanoTime();
+        limiter.acquire("core", GitHubRateLimiter.Lane.INTERACTIVE);
+        long waited = System.nanoTime() - start;
+        assertTrue(waited >= TimeUnit.MILLISECONDS.toNanos(150) && waited < TimeUnit.SECONDS.toNanos(2));
+    }
+
+    private static HttpHeaders budget(int remaining, long resetInSeconds) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-RateLimit-Limit", "5000");
+        headers.set("X-RateLimit-Remaining", String.valueOf(remaining));
+        headers.set("X-RateLimit-Reset", String.valueOf(System.currentTimeMillis() / 1000 + resetInSeconds));
+        headers.set("X-RateLimit-Resource", "core");
+        return headers;
+    }
+
+    private static void acquire(GitHubRateLimiter limiter, GitHubRateLimiter.Lane lane) {
+        try {
+            limiter.acquire("core", lane);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
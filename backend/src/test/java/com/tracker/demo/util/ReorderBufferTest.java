@@ -0,0 +1,121 @@
+package com.tracker.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReorderBufferTest {
+
+    private final List<Integer> released = new ArrayList<>();
+    private final SensorRingBuffer.ReadingHandler collector =
+            (deviceId, deviceSequence, timestamp, rawValue, weight) -> released.add(deviceSequence);
+
+    @Test
+    void restoresSequenceOrderAndDropsDuplicates() {
+        ReorderBuffer buffer = new ReorderBuffer(0, 8);
+        for (int sequence : new int[]{1, 3, 4, 2, 2, 3, 5}) {
+            buffer.accept(sequence, sequence * 100L, 0, 0, 0, collector);
+        }
+
+        assertEquals(List.of(1, 2, 3, 4, 5), released);
+        assertEquals(2, buffer.getDuplicates());
+        assertFalse(buffer.hasWaiting());
+    }
+
+    @Test
+    void givesUpOnAGapAfterTheDelay() {
+        ReorderBuffer buffer = new ReorderBuffer(0, 8);
+        buffer.accept(1, 0, 0, 0, 1_000, collector);
+        buffer.accept(3, 0, 0, 0, 1_000, collector);
+        buffer.accept(4, 0, 0, 0, 1_050, collector);
+
+        buffer.expire(1_100, 200, collector);
+        assertEquals(List.of(1), released);
+
+        buffer.expire(1_200, 200, collector);
+        assertEquals(List.of(1, 3, 4), released);
+        assertEquals(1, buffer.getLost());
+
+        buffer.accept(2, 0, 0, 0, 1_300, collector);   // too late now
+        assertEquals(List.of(1, 3, 4), released);
+    }
+
+    @Test
+    void resyncsAfterDeviceRestartOrLargeJump() {
+        ReorderBuffer buffer = new ReorderBuffer(0, 4);
+        buffer.accept(100, 0, 0, 0, 0, collector);
+        buffer.accept(102, 0, 0, 0, 0, collector);
+        buffer.accept(1, 0, 0, 0, 0, collector);       // counter restarted
+        buffer.accept(2, 0, 0, 0, 0, collector);
+        buffer.accept(50, 0, 0, 0, 0, collector);      // more than a window ahead
+
+        assertEquals(List.of(100, 102, 1, 2, 50), released);
+        assertEquals(1, buffer.getResets());
+    }
+
+    @Test
+    void quickRebootWithinTheWindowIsARestart() {
+        ReorderBuffer buffer = new ReorderBuffer(0, 8);
+        for (int sequence = 1; sequence <= 4; sequence++) {
+            buffer.accept(sequence, 10_000 + sequence * 100L, 0, 0, 0, collector);
+        }
+        buffer.accept(6, 10_600, 0, 0, 0, collector);  // waits for 5, which never comes
+        buffer.accept(1, 50, 0, 0, 0, collector);      // rebooted a few readings in, clock restarted
+        buffer.accept(2, 150, 0, 0, 0, collector);
+        buffer.accept(3, 250, 0, 0, 0, collector);
+
+        assertEquals(List.of(1, 2, 3, 4, 6, 1, 2, 3), released);
+        assertEquals(1, buffer.getResets());
+        assertEquals(0, buffer.getDuplicates());
+    }
+
+    @Test
+    void quickRebootWithAWallClockIsARestart() {
+        ReorderBuffer buffer = new ReorderBuffer(0, 8);
+        for (int sequence = 1; sequence <= 4; sequence++) {
+            buffer.accept(sequence, sequence * 100L, 0, 0, 0, collector);
+        }
+        buffer.accept(1, 5_000, 0, 0, 0, collector);   // taken after everything from the last boot
+        buffer.accept(2, 5_100, 0, 0, 0, collector);
+
+        assertEquals(List.of(1, 2, 3, 4, 1, 2), released);
+        assertEquals(1, buffer.getResets());
+    }
+
+    @Test
+    void firstReadingDeliveredTwiceIsADuplicate() {
+        ReorderBuffer buffer = new ReorderBuffer(0, 8);
+        for (int sequence = 1; sequence <= 4; sequence++) {
+            buffer.accept(sequence, sequence * 100L, 0, 0, 0, collector);
+        }
+        buffer.accept(1, 100, 0, 0, 0, collector);     // late retry of the first reading
+        buffer.accept(5, 500, 0, 0, 0, collector);
+
+        assertEquals(List.of(1, 2, 3, 4, 5), released);
+        assertEquals(1, buffer.getDuplicates());
+        assertEquals(0, buffer.getResets());
+    }
+
+    @Test
+    void repeatedFirstReadingIsStillADuplicate() {
+        ReorderBuffer buffer = new ReorderBuffer(0, 8);
+        buffer.accept(1, 0, 0, 0, 0, collector);
+        buffer.accept(1, 0, 0, 0, 0, collector);
+
+        assertEquals(List.of(1), released);
+        assertEquals(1, buffer.getDuplicates());
+        assertEquals(0, buffer.getResets());
+    }
+
+    @Test
+    void unsequencedReadingsPassThrough() {
+        ReorderBuffer buffer = new ReorderBuffer(0, 4);
+        buffer.accept(ReorderBuffer.UNSEQUENCED, 0, 0, 0, 0, collector);
+        buffer.accept(ReorderBuffer.UNSEQUENCED, 0, 0, 0, 0, collector);
+
+        assertEquals(List.of(0, 0), released);
+    }
+}
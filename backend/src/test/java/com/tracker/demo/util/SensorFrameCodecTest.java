@@ -0,0 +1,39 @@
+package com.tracker.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SensorFrameCodecTest {
+
+    @Test
+    void decodesFramesInPlace() {
+        ByteBuffer out = ByteBuffer.allocate(2 * SensorFrameCodec.FRAME_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        SensorFrameCodec.put(out, 3, 41, 1_700_000_000_000L, -8_388_000, -1.5f);
+        SensorFrameCodec.put(out, 3, 42, 1_700_000_000_020L, 12_345, 72.25f);
+
+        ByteBuffer frames = SensorFrameCodec.wrap(out.array());
+        assertTrue(SensorFrameCodec.isWellFormed(frames));
+        assertEquals(2, SensorFrameCodec.frameCount(frames));
+
+        assertEquals(3, SensorFrameCodec.deviceId(frames, 0));
+        assertEquals(41, SensorFrameCodec.sequence(frames, 0));
+        assertEquals(1_700_000_000_000L, SensorFrameCodec.timestamp(frames, 0));
+        assertEquals(-8_388_000, SensorFrameCodec.rawValue(frames, 0));
+        assertEquals(-1.5f, SensorFrameCodec.weight(frames, 0));
+
+        assertEquals(42, SensorFrameCodec.sequence(frames, 1));
+        assertEquals(1_700_000_000_020L, SensorFrameCodec.timestamp(frames, 1));
+        assertEquals(12_345, SensorFrameCodec.rawValue(frames, 1));
+        assertEquals(72.25f, SensorFrameCodec.weight(frames, 1));
+    }
+
+    @Test
+    void rejectsTruncatedPayload() {
+        ByteBuffer frames = SensorFrameCodec.wrap(new byte[SensorFrameCodec.FRAME_SIZE + 5]);
+        assertFalse(SensorFrameCodec.isWellFormed(frames));
+    }
+}
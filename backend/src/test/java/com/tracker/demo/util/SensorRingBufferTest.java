@@ -0,0 +1,89 @@
+package com.tracker.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SensorRingBufferTest {
+
+    @Test
+    void rejectsBatchThatDoesNotFit() {
+        SensorRingBuffer buffer = new SensorRingBuffer(4);
+        assertEquals(4, buffer.capacity());
+
+        assertEquals(0, buffer.tryClaim(3));
+        assertEquals(-1, buffer.tryClaim(2), "only one slot left, batch of two must be rejected");
+        assertEquals(3, buffer.tryClaim(1));
+        assertFalse(buffer.offer(0, 1, 1, 1, 1.0));
+    }
+
+    @Test
+    void consumerSkipsCancelledSlots() {
+        SensorRingBuffer buffer = new SensorRingBuffer(8);
+        long first = buffer.tryClaim(2);
+        long second = buffer.tryClaim(1);
+        buffer.set(second, 7, 1, 100, 5, 1.5);
+        buffer.publish(second);
+        buffer.cancel(first, 2);
+
+        List<Integer> seen = new ArrayList<>();
+        assertEquals(1, buffer.drain((deviceId, deviceSequence, timestamp, rawValue, weight) -> seen.add(deviceId), 16));
+        assertEquals(List.of(7), seen);
+        assertEquals(0, buffer.size());
+
+        // The slots are usable again once the ring wraps around
+        for (int i = 0; i < 8; i++) {
+            assertTrue(buffer.offer(i, i, i, i, i));
+        }
+        seen.clear();
+        buffer.drain((deviceId, deviceSequence, timestamp, rawValue, weight) -> seen.add(deviceId), 16);
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7), seen);
+    }
+
+    @Test
+    void consumerSeesEveryReadingInProducerOrder() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 50_000;
+        SensorRingBuffer buffer = new SensorRingBuffer(1024);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            final int producer = p;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    // deviceId = producer id, rawValue = per-producer counter
+                    while (!buffer.offer(producer, i, i, i, i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        long[] nextExpected = new long[producers];
+        int[] received = {0};
+        while (received[0] < producers * perProducer) {
+            buffer.drain((deviceId, deviceSequence, timestamp, rawValue, weight) -> {
+                int producer = deviceId;
+                assertEquals(nextExpected[producer], rawValue);
+                assertEquals(rawValue, deviceSequence);
+                assertEquals(rawValue, timestamp);
+                assertEquals((double) rawValue, weight);
+                nextExpected[producer]++;
+                received[0]++;
+            }, 256);
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (long count : nextExpected) {
+            assertEquals(perProducer, count);
+        }
+        assertEquals(0, buffer.size());
+    }
+}
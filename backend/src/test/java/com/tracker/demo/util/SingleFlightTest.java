@@ -0,0 +1,116 @@
+package com.tracker.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> flight = new SingleFlight<>();
+
+    @Test
+    void concurrentCallersShareOneCall() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> flight.run("2025-03/W11/2025-03-14.md", () -> {
+                    calls.incrementAndGet();
+                    await(release);
+                    return "- [ ] Stretch";
+                })));
+            }
+            while (flight.size() == 0) {
+                Thread.onSpinWait();
+            }
+            Thread.sleep(100); // let the others join the running call
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("- [ ] Stretch", result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, calls.get());
+            assertEquals(0, flight.size());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void waitersGetTheLeadersException() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = pool.submit(() -> flight.run("a", () -> {
+                started.countDown();
+                await(release);
+                throw new IllegalStateException("rate limited");
+            }));
+            started.await();
+            Future<String> waiter = pool.submit(() -> flight.run("a", () -> "unused"));
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<String> result : List.of(leader, waiter)) {
+                ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+                assertEquals("rate limited", e.getCause().getMessage());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // Nothing is remembered, the next call runs again
+        assertEquals("fresh", flight.run("a", () -> "fresh"));
+    }
+
+    @Test
+    void nullResultsAreShared() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            // A note that doesn't exist: the waiter must get null too, not run its own call
+            Future<String> leader = pool.submit(() -> flight.run("missing", () -> {
+                calls.incrementAndGet();
+                started.countDown();
+                await(release);
+                return null;
+            }));
+            started.await();
+            Future<String> waiter = pool.submit(() -> flight.run("missing", () -> {
+                calls.incrementAndGet();
+                return "not shared";
+            }));
+            Thread.sleep(100);
+            release.countDown();
+
+            assertNull(leader.get(5, TimeUnit.SECONDS));
+            assertNull(waiter.get(5, TimeUnit.SECONDS));
+            assertEquals(1, calls.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}